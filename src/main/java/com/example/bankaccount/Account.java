@@ -11,6 +11,7 @@ public abstract class Account {
     private ArrayList<Transaction> transactionHistory;
     protected String accountType;
     private Date lastInterestDate;
+    private long version;
 
     public Account(String branch, com.example.bankaccount.Customer customer, String accountType) {
         this.branch = branch;
@@ -36,12 +37,15 @@ public abstract class Account {
     }
     public String getAccountType() {return accountType;}
     private Date getLastInterestDate() {return lastInterestDate;}
+    // Row version read from the database; updateAccount only succeeds if it is still current
+    public long getVersion() {return version;}
 
     //Setters
     public void setAccountNumber(String accountNumber) {this.accountNumber = accountNumber;}
     public void setBalance(double balance) {this.balance = balance;}
     public void setBranch(String branch) {this.branch = branch;}
     public void setLastInterestDate(Date lastInterestDate) {this.lastInterestDate = lastInterestDate;}
+    public void setVersion(long version) {this.version = version;}
 
 
     public void deposit(double amount) {
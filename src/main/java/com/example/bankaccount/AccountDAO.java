@@ -1,14 +1,38 @@
 package com.example.bankaccount;
 import com.example.bankaccount.Account;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface AccountDAO {
     void saveAccount(Account account);
     List<Account> getAccountsForCustomer(int customerId);
     Account findAccountByNumber(String accountNumber);
+    // Bulk lookup in chunked IN queries; numbers that don't exist are absent from the map
+    Map<String, Account> findAccountsByNumbers(Collection<String> accountNumbers);
     List<Account> findAllAccounts();
+    // Streams every account through the action without holding the whole book in memory
+    void forEachAccount(Consumer<Account> action);
+    // Same as forEachAccount for accountNumber in [fromInclusive, toExclusive); a null bound is open
+    void forEachAccountInRange(String fromInclusive, String toExclusive, Consumer<Account> action);
+    // Only interest-bearing accounts whose interest is due on asOf, within the same kind of range
+    void forEachInterestDueAccountInRange(String fromInclusive, String toExclusive, LocalDate asOf, Consumer<Account> action);
+    // Up to partitions - 1 ascending account numbers that split the accounts due on asOf into equal-sized ranges
+    List<String> findInterestDueSplitPoints(LocalDate asOf, int partitions);
+    // Posts all due interest inside the database in one transaction; returns the number of accounts credited
+    int postInterestInDatabase(LocalDate asOf);
     List<Account> findAccountsByCustomer(int customerId);
+    // Accounts, their total balance (summed over the accounts returned) and the recentCount newest
+    // transactions from one consistent read
+    DashboardSnapshot loadDashboardSnapshot(int customerId, int recentCount);
     void updateAccount(Account account);
+    // Adds delta to the balance in SQL (withdrawals need a Withdrawable account with the funds) and records
+    // the transaction in the same database transaction; returns the new balance
+    double applyBalanceDelta(String accountNumber, double delta, String transactionType, String description);
+    // Moves money between two accounts in one database transaction; returns the new source balance
+    double transfer(String fromAccount, String toAccount, double amount, String debitDescription, String creditDescription);
     void deleteAccount(String accountNumber);
     boolean accountExists(String accountNumber);
     List<Account> getRecentlyCreatedAccounts();
@@ -0,0 +1,44 @@
+package com.example.bankaccount;
+
+// Account numbers are always 12 digits starting with 7, so they fit in a long with room to spare.
+// In-memory indexes key on the long instead of the String: no boxing, cheaper hashing and compares.
+public final class AccountId {
+
+    public static final int LENGTH = 12;
+    private static final long MIN = 700_000_000_000L;
+    private static final long MAX = 799_999_999_999L;
+
+    private AccountId() {
+    }
+
+    public static long encode(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != LENGTH || accountNumber.charAt(0) != '7') {
+            throw new IllegalArgumentException("Not an account number: " + accountNumber);
+        }
+        long id = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            int d = accountNumber.charAt(i) - '0';
+            if (d < 0 || d > 9) throw new IllegalArgumentException("Not an account number: " + accountNumber);
+            id = id * 10 + d;
+        }
+        return id;
+    }
+
+    public static String decode(long id) {
+        if (!isValid(id)) throw new IllegalArgumentException("Not an account id: " + id);
+        return Long.toString(id);
+    }
+
+    public static boolean isValid(long id) {
+        return id >= MIN && id <= MAX;
+    }
+
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != LENGTH || accountNumber.charAt(0) != '7') return false;
+        for (int i = 1; i < LENGTH; i++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+}
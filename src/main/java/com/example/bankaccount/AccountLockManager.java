@@ -0,0 +1,100 @@
+package com.example.bankaccount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// In-process locks for balance changes, striped by account number. Operations on the same account
+// are serialized; unrelated accounts almost always land on different stripes and run in parallel.
+// Reads never take a lock.
+public class AccountLockManager {
+
+    private final ReentrantLock[] locks;
+    private final LongAdder[] acquisitions;
+    private final LongAdder[] contended;
+    private final LongAdder[] waitNanos;
+    private final int mask;
+
+    public record StripeStats(int stripe, long acquisitions, long contended, long waitNanos) {
+    }
+
+    public AccountLockManager(int stripes) {
+        if (stripes < 1) throw new IllegalArgumentException("Stripe count must be positive");
+
+        // Round up to a power of two so the stripe is a mask, not a modulo
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) size <<= 1;
+
+        this.locks = new ReentrantLock[size];
+        this.acquisitions = new LongAdder[size];
+        this.contended = new LongAdder[size];
+        this.waitNanos = new LongAdder[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+            acquisitions[i] = new LongAdder();
+            contended[i] = new LongAdder();
+            waitNanos[i] = new LongAdder();
+        }
+    }
+
+    public <T> T withLock(String accountNumber, Supplier<T> action) {
+        int stripe = stripeFor(accountNumber);
+        lock(stripe);
+        try {
+            return action.get();
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    // Always takes the lower stripe first, so two callers locking the same pair cannot deadlock
+    public <T> T withLocks(String firstAccount, String secondAccount, Supplier<T> action) {
+        int a = stripeFor(firstAccount);
+        int b = stripeFor(secondAccount);
+        if (a == b) {
+            return withLock(firstAccount, action);
+        }
+
+        int low = Math.min(a, b);
+        int high = Math.max(a, b);
+        lock(low);
+        try {
+            lock(high);
+            try {
+                return action.get();
+            } finally {
+                locks[high].unlock();
+            }
+        } finally {
+            locks[low].unlock();
+        }
+    }
+
+    public List<StripeStats> getStats() {
+        List<StripeStats> stats = new ArrayList<>(locks.length);
+        for (int i = 0; i < locks.length; i++) {
+            stats.add(new StripeStats(i, acquisitions[i].sum(), contended[i].sum(), waitNanos[i].sum()));
+        }
+        return stats;
+    }
+
+    private void lock(int stripe) {
+        ReentrantLock lock = locks[stripe];
+        acquisitions[stripe].increment();
+        if (lock.tryLock()) return;
+
+        contended[stripe].increment();
+        long start = System.nanoTime();
+        lock.lock();
+        waitNanos[stripe].add(System.nanoTime() - start);
+    }
+
+    private int stripeFor(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.bankaccount;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Hands out account numbers from blocks reserved in the account_number_sequence table.
+// A block is claimed with one UPDATE, so numbers never collide across processes, and within a
+// block they are taken with an atomic increment. The next block is reserved in the background
+// once the current one is three quarters used.
+//
+// Format: "7" + 10-digit serial + Luhn check digit, or "7" + 11-digit serial without one.
+// Serials are handed out in ascending order, so numbers are dense rather than spread over the
+// whole range; anything that splits work by account number must split on the real keys.
+public class AccountNumberAllocator {
+
+    private static final String SEQUENCE_NAME = "account";
+
+    private final int blockSize;
+    private final boolean checkDigit;
+    private final int serialDigits;
+    private final long maxSerial;
+
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(0, 0, Set.of()));
+    private final AtomicReference<CompletableFuture<Block>> pending = new AtomicReference<>();
+    private final ExecutorService refiller = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "account-number-refill");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // taken holds numbers in the block that already exist, e.g. ones issued randomly before the allocator
+    private record Block(long start, long end, Set<String> taken, AtomicLong cursor) {
+        Block(long start, long end, Set<String> taken) {
+            this(start, end, taken, new AtomicLong(start));
+        }
+    }
+
+    public AccountNumberAllocator(int blockSize, boolean checkDigit) {
+        if (blockSize < 1) throw new IllegalArgumentException("Block size must be positive");
+        this.blockSize = blockSize;
+        this.checkDigit = checkDigit;
+        this.serialDigits = checkDigit ? 10 : 11;
+        this.maxSerial = (long) Math.pow(10, serialDigits) - 1;
+    }
+
+    public String next() {
+        for (;;) {
+            Block block = current.get();
+            long serial = block.cursor().getAndIncrement();
+
+            if (serial < block.end()) {
+                if (block.end() - serial == Math.max(1, blockSize / 4)) prefetch();
+
+                String number = format(serial);
+                if (block.taken().contains(number)) continue;
+                return number;
+            }
+
+            // Block used up: switch to the one being reserved, waiting for it only if it isn't there yet
+            CompletableFuture<Block> refill = prefetch();
+            try {
+                Block fresh = refill.join();
+                if (current.compareAndSet(block, fresh)) {
+                    pending.compareAndSet(refill, null);
+                }
+            } catch (CompletionException e) {
+                pending.compareAndSet(refill, null);
+                throw new RuntimeException("Could not reserve account numbers", e.getCause());
+            }
+        }
+    }
+
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() < 2) return false;
+        for (int i = 0; i < accountNumber.length(); i++) {
+            if (!Character.isDigit(accountNumber.charAt(i))) return false;
+        }
+        String payload = accountNumber.substring(0, accountNumber.length() - 1);
+        return luhnDigit(payload) == accountNumber.charAt(accountNumber.length() - 1) - '0';
+    }
+
+    private CompletableFuture<Block> prefetch() {
+        CompletableFuture<Block> existing = pending.get();
+        if (existing != null) return existing;
+
+        CompletableFuture<Block> refill = new CompletableFuture<>();
+        if (!pending.compareAndSet(null, refill)) return pending.get();
+
+        refiller.execute(() -> {
+            try {
+                refill.complete(reserveBlock());
+            } catch (RuntimeException e) {
+                refill.completeExceptionally(e);
+            }
+        });
+        return refill;
+    }
+
+    private Block reserveBlock() {
+        String reserveSql = "UPDATE account_number_sequence SET nextValue = LAST_INSERT_ID(nextValue + ?) WHERE name = ?";
+        String takenSql = "SELECT accountNumber FROM account WHERE accountNumber BETWEEN ? AND ?";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            long end;
+            try (PreparedStatement stmt = conn.prepareStatement(reserveSql)) {
+                stmt.setInt(1, blockSize);
+                stmt.setString(2, SEQUENCE_NAME);
+                if (stmt.executeUpdate() == 0) {
+                    throw new IllegalStateException("Sequence '" + SEQUENCE_NAME + "' is missing from account_number_sequence");
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT LAST_INSERT_ID()");
+                 ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                end = rs.getLong(1);
+            }
+
+            long start = end - blockSize;
+            if (end - 1 > maxSerial) {
+                throw new IllegalStateException("Account number space exhausted");
+            }
+
+            // One lookup per block instead of one per account
+            Set<String> taken = new HashSet<>();
+            try (PreparedStatement stmt = conn.prepareStatement(takenSql)) {
+                stmt.setString(1, "7" + pad(start) + (checkDigit ? "0" : ""));
+                stmt.setString(2, "7" + pad(end - 1) + (checkDigit ? "9" : ""));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) taken.add(rs.getString(1));
+                }
+            }
+            return new Block(start, end, taken);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reserving account numbers", e);
+        }
+    }
+
+    private String format(long serial) {
+        String payload = "7" + pad(serial);
+        return checkDigit ? payload + luhnDigit(payload) : payload;
+    }
+
+    private String pad(long serial) {
+        String digits = Long.toString(serial);
+        return "0".repeat(Math.max(0, serialDigits - digits.length())) + digits;
+    }
+
+    // Check digit that makes payload + digit pass the Luhn test
+    private static int luhnDigit(String payload) {
+        int sum = 0;
+        boolean doubleIt = true;
+        for (int i = payload.length() - 1; i >= 0; i--) {
+            int d = payload.charAt(i) - '0';
+            if (doubleIt) {
+                d *= 2;
+                if (d > 9) d -= 9;
+            }
+            sum += d;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
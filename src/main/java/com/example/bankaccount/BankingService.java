@@ -2,26 +2,40 @@ package com.example.bankaccount;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class BankingService {
 
+    // Shared by every BankingService so all tellers and dashboards in this JVM see the same locks
+    private static final AccountLockManager ACCOUNT_LOCKS =
+            new AccountLockManager(Integer.getInteger("banking.accountLockStripes", 64));
+
+    // One account cache per JVM, so a write through any BankingService evicts what every other one sees.
+    // Tunable with -Dbanking.accountCache.maxEntries and -Dbanking.accountCache.ttlMs
+    private static final CachingAccountDAO ACCOUNT_CACHE = new CachingAccountDAO(
+            new JDBCAccountDAO(new JDBCCustomerDAO()),
+            Integer.getInteger("banking.accountCache.maxEntries", 10_000),
+            Long.getLong("banking.accountCache.ttlMs", 30_000L));
+
+    private static final int MAX_CONFLICT_RETRIES = 5;
+    private static final long CONFLICT_BACKOFF_MS = 10;
+
     private AccountDAO accountDAO;
     private JDBCTransactionDAO transactionDAO;
     private CustomerDAO customerDAO;
 
     public BankingService() {
-        try {
-            this.customerDAO = new JDBCCustomerDAO();
-            this.accountDAO = new JDBCAccountDAO(customerDAO);
-
-            Connection connection = DatabaseConnection.getConnection();
-            this.transactionDAO = new JDBCTransactionDAO(connection);
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to initialize BankingService", e);
-        }
+        this.customerDAO = new JDBCCustomerDAO();
+        this.accountDAO = ACCOUNT_CACHE;
+        this.transactionDAO = new JDBCTransactionDAO();
     }
 
     // ---------------- Customer Management ----------------
@@ -187,63 +201,107 @@ public class BankingService {
     }
 
 
-    public void deposit(String accountNumber, double amount, String description) {
-        Account account = accountDAO.findAccountByNumber(accountNumber);
-        if (account == null) throw new IllegalArgumentException("Account not found: " + accountNumber);
+    // Balance changes to one account are serialized in-process; different accounts run in parallel.
+    // Both return the new balance.
+    public double deposit(String accountNumber, double amount, String description) {
+        if (amount <= 0) throw new IllegalArgumentException("Deposit amount must be positive");
 
-        account.deposit(amount);
-        accountDAO.updateAccount(account);
+        return ACCOUNT_LOCKS.withLock(accountNumber, () -> accountDAO.applyBalanceDelta(
+                accountNumber, amount, "DEPOSIT",
+                description != null ? description : "Cash deposit"));
+    }
 
-        Transaction transaction = new Transaction(
-                accountNumber,
-                "DEPOSIT",
-                amount,
-                account.getBalance(),
-                description != null ? description : "Cash deposit"
-        );
+    public double withdraw(String accountNumber, double amount, String description) {
+        if (amount <= 0) throw new IllegalArgumentException("Withdrawal amount must be positive");
 
-        try {
-            transactionDAO.saveTransaction(transaction);
-        } catch (SQLException e) {
-            handleDatabaseError("saveTransaction in deposit", e);
-        }
+        return ACCOUNT_LOCKS.withLock(accountNumber, () -> accountDAO.applyBalanceDelta(
+                accountNumber, -amount, "WITHDRAWAL",
+                description != null ? description : "Cash withdrawal"));
     }
 
-    public void withdraw(String accountNumber, double amount, String description) {
-        Account account = accountDAO.findAccountByNumber(accountNumber);
-        if (account == null) throw new IllegalArgumentException("Account not found: " + accountNumber);
+    // Both legs and both transaction records commit together or not at all
+    public double transfer(String fromAccount, String toAccount, double amount, String description) {
+        if (amount <= 0) throw new IllegalArgumentException("Transfer amount must be positive");
 
-        if (account instanceof Withdrawable withdrawableAccount) {
-            withdrawableAccount.withdraw(amount);
-            accountDAO.updateAccount(account);
+        String debitDescription = description != null && !description.isEmpty()
+                ? description
+                : "Transfer to account #" + toAccount;
+        return ACCOUNT_LOCKS.withLocks(fromAccount, toAccount, () -> accountDAO.transfer(fromAccount, toAccount, amount,
+                debitDescription, "Transfer from account #" + fromAccount));
+    }
 
-            Transaction transaction = new Transaction(
-                    accountNumber,
-                    "WITHDRAWAL",
-                    amount,
-                    account.getBalance(),
-                    description != null ? description : "Cash withdrawal"
-            );
+    // Reads the account, applies change and writes it back. If the row was written by someone else in
+    // between, re-reads it and applies change again, backing off like the interest retries
+    public Account updateAccount(String accountNumber, Consumer<Account> change) {
+        return retryOnConflict(() -> {
+            Account account = accountDAO.findAccountByNumber(accountNumber);
+            if (account == null) {
+                throw new IllegalArgumentException("Account not found: " + accountNumber);
+            }
+            change.accept(account);
+            accountDAO.updateAccount(account);
+            return account;
+        });
+    }
 
-            try {
-                transactionDAO.saveTransaction(transaction);
+    // Re-reads the account and accrues again if a teller changed it since it was read.
+    // The balance and the INTEREST transaction are written in one database transaction.
+    // Returns true if interest was posted.
+    public boolean applyInterestWithRetry(String accountNumber) {
+        return retryOnConflict(() -> {
+            Account account = accountDAO.findAccountByNumber(accountNumber);
+            if (!(account instanceof InterestBearing interestAcc)) return false;
+
+            Transaction interest = interestAcc.accrueInterestIfDue();
+            if (interest == null) return false;
+
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    if (!JDBCAccountDAO.updateInterestBalances(conn, List.of(account)).isEmpty()) {
+                        throw new OptimisticLockException(accountNumber, account.getVersion());
+                    }
+                    JDBCTransactionDAO.saveTransactions(conn, List.of(interest));
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                }
             } catch (SQLException e) {
-                handleDatabaseError("saveTransaction in withdraw", e);
+                handleDatabaseError("applyInterestWithRetry", e);
+            } finally {
+                // Written past the cache, so drop what it holds whether or not the write went through
+                ACCOUNT_CACHE.invalidate(accountNumber);
             }
-        } else {
-            throw new UnsupportedOperationException("Withdrawals not allowed for this account type");
-        }
+            return true;
+        });
     }
 
-    // BankingService.java
-    public void updateAccount(Account account) {
-        accountDAO.updateAccount(account);
+    public int postInterestInDatabase(LocalDate asOf) {
+        return accountDAO.postInterestInDatabase(asOf);
     }
 
     // ---------------- Queries ----------------
     public List<Account> getAllAccounts() {
         return accountDAO.findAllAccounts();
     }
+
+    public void forEachAccount(Consumer<Account> action) {
+        accountDAO.forEachAccount(action);
+    }
+
+    public void forEachAccountInRange(String fromInclusive, String toExclusive, Consumer<Account> action) {
+        accountDAO.forEachAccountInRange(fromInclusive, toExclusive, action);
+    }
+
+    public void forEachInterestDueAccountInRange(String fromInclusive, String toExclusive, LocalDate asOf,
+                                                 Consumer<Account> action) {
+        accountDAO.forEachInterestDueAccountInRange(fromInclusive, toExclusive, asOf, action);
+    }
+
+    public List<String> getInterestDueSplitPoints(LocalDate asOf, int partitions) {
+        return accountDAO.findInterestDueSplitPoints(asOf, partitions);
+    }
     public List<Account> getCustomerAccounts(int customerId) {
         return accountDAO.findAccountsByCustomer(customerId);
     }
@@ -252,6 +310,11 @@ public class BankingService {
         return accountDAO.findAccountByNumber(accountNumber);
     }
 
+    // Several accounts in a few round trips; unknown numbers are left out of the map
+    public Map<String, Account> getAccounts(Collection<String> accountNumbers) {
+        return accountDAO.findAccountsByNumbers(accountNumbers);
+    }
+
     public List<Transaction> getAccountTransactions(String accountNumber) {
         try {
             return transactionDAO.findTransactionsByAccount(accountNumber);
@@ -261,12 +324,54 @@ public class BankingService {
         }
     }
 
+    // One newest-first page of history; before is the last transaction of the previous page, or null
+    public List<Transaction> getAccountTransactions(String accountNumber, Transaction before, int limit) {
+        try {
+            return transactionDAO.findTransactions(accountNumber, before, limit);
+        } catch (SQLException e) {
+            handleDatabaseError("findTransactions", e);
+            return List.of();
+        }
+    }
+
+    // Statement ranges can be long, so rows are streamed to the action rather than returned as a list
+    public void forEachAccountTransactionBetween(String accountNumber, Date from, Date to, Consumer<Transaction> action) {
+        try {
+            transactionDAO.forEachTransactionBetween(accountNumber, from, to, action);
+        } catch (SQLException e) {
+            handleDatabaseError("forEachTransactionBetween", e);
+        }
+    }
+
+    // The customer's n most recent transactions across all their accounts, newest first. One UNION ALL
+    // of per-account index seeks, each capped at n rows, so the cost does not grow with history length.
+    public List<Transaction> recentActivityForCustomer(int customerId, int n) {
+        try {
+            return transactionDAO.findRecentTransactionsForCustomer(customerId, n);
+        } catch (SQLException e) {
+            handleDatabaseError("findRecentTransactionsForCustomer", e);
+            return List.of();
+        }
+    }
+
+    public DashboardSnapshot getDashboardSnapshot(int customerId, int recentCount) {
+        return accountDAO.loadDashboardSnapshot(customerId, recentCount);
+    }
+
     public double getAccountBalance(String accountNumber) {
         Account account = accountDAO.findAccountByNumber(accountNumber);
         if (account == null) throw new IllegalArgumentException("Account not found: " + accountNumber);
         return account.getBalance();
     }
 
+    public static CachingAccountDAO getAccountCache() {
+        return ACCOUNT_CACHE;
+    }
+
+    public static List<AccountLockManager.StripeStats> getAccountLockStats() {
+        return ACCOUNT_LOCKS.getStats();
+    }
+
     // ---------------- Utilities ----------------
     private boolean validateMinimumDeposit(String accountType, double deposit) {
         if (accountType.equalsIgnoreCase("cheque")) {
@@ -280,6 +385,24 @@ public class BankingService {
         if (transactionDAO != null) transactionDAO.close();
     }
 
+    // Retries an optimistic update with exponential backoff plus jitter; gives up after MAX_CONFLICT_RETRIES
+    private <T> T retryOnConflict(Supplier<T> attempt) {
+        for (int i = 0; ; i++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockException e) {
+                if (i >= MAX_CONFLICT_RETRIES) throw e;
+                long backoff = CONFLICT_BACKOFF_MS << i;
+                try {
+                    Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff + 1));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
     private void handleDatabaseError(String operation, SQLException e) {
         String timestamp = new java.util.Date().toString();
         System.err.printf("[%s] Database Error in BankingService.%s%n", timestamp, operation);
@@ -36,6 +36,13 @@ public class BankingSystem extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        // Let queued transaction inserts commit before the pool goes away
+        JDBCTransactionDAO.getJournal().close();
+        DatabaseConnection.shutdown();
+    }
+
     private void createSimpleUI(Stage primaryStage) {
         Label label = new Label(" Banking System\n\nFXML file missing!\nCheck the file location.");
         VBox root = new VBox(label);
@@ -0,0 +1,340 @@
+package com.example.bankaccount;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Read-through cache in front of another AccountDAO for findAccountByNumber and findAccountsByNumbers.
+// Entries are indexed by AccountId in a LongObjectMap and kept in LRU order, bounded by maxEntries and
+// expired after ttlMillis so changes made by other processes are picked up. Every write that goes
+// through this DAO evicts the accounts it touches; postInterestInDatabase clears the whole cache.
+// Accounts are mutable, so the cache keeps a private copy and every hit hands out a fresh one.
+public class CachingAccountDAO implements AccountDAO {
+
+    private static final class Node {
+        final long key;
+        final Account account;
+        final long loadedAt;
+        Node prev;
+        Node next;
+
+        Node(long key, Account account, long loadedAt) {
+            this.key = key;
+            this.account = account;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final AccountDAO delegate;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final LongObjectMap<Node> index;
+    // head is the most recently used entry, tail the next to evict
+    private Node head;
+    private Node tail;
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public CachingAccountDAO(AccountDAO delegate, int maxEntries, long ttlMillis) {
+        if (maxEntries < 1 || ttlMillis < 1) throw new IllegalArgumentException("Size and TTL must be positive");
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.index = new LongObjectMap<>(Math.min(maxEntries, 1 << 16));
+    }
+
+    @Override
+    public Account findAccountByNumber(String accountNumber) {
+        if (!AccountId.isValid(accountNumber)) return delegate.findAccountByNumber(accountNumber);
+        long key = AccountId.encode(accountNumber);
+
+        long loadGeneration;
+        synchronized (this) {
+            Account cached = lookup(key);
+            if (cached != null) return copy(cached);
+            loadGeneration = generation;
+        }
+
+        // Loaded outside the lock so one slow query does not block every other lookup
+        Account account = delegate.findAccountByNumber(accountNumber);
+        if (account != null) {
+            synchronized (this) {
+                store(key, account, loadGeneration);
+            }
+        }
+        return account;
+    }
+
+    @Override
+    public Map<String, Account> findAccountsByNumbers(Collection<String> accountNumbers) {
+        Map<String, Account> accounts = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        long loadGeneration;
+        synchronized (this) {
+            for (String accountNumber : accountNumbers) {
+                Account cached = AccountId.isValid(accountNumber) ? lookup(AccountId.encode(accountNumber)) : null;
+                if (cached != null) accounts.put(accountNumber, copy(cached));
+                else missing.add(accountNumber);
+            }
+            loadGeneration = generation;
+        }
+        if (missing.isEmpty()) return accounts;
+
+        Map<String, Account> loaded = delegate.findAccountsByNumbers(missing);
+        synchronized (this) {
+            for (Account account : loaded.values()) {
+                if (AccountId.isValid(account.getAccountNumber())) {
+                    store(AccountId.encode(account.getAccountNumber()), account, loadGeneration);
+                }
+            }
+        }
+        accounts.putAll(loaded);
+        return accounts;
+    }
+
+    @Override
+    public void updateAccount(Account account) {
+        // Evict even on OptimisticLockException, so the retry reloads the current row
+        try {
+            delegate.updateAccount(account);
+        } finally {
+            invalidate(account.getAccountNumber());
+        }
+    }
+
+    @Override
+    public double applyBalanceDelta(String accountNumber, double delta, String transactionType, String description) {
+        try {
+            return delegate.applyBalanceDelta(accountNumber, delta, transactionType, description);
+        } finally {
+            invalidate(accountNumber);
+        }
+    }
+
+    @Override
+    public double transfer(String fromAccount, String toAccount, double amount, String debitDescription, String creditDescription) {
+        try {
+            return delegate.transfer(fromAccount, toAccount, amount, debitDescription, creditDescription);
+        } finally {
+            invalidate(fromAccount);
+            invalidate(toAccount);
+        }
+    }
+
+    @Override
+    public void deleteAccount(String accountNumber) {
+        try {
+            delegate.deleteAccount(accountNumber);
+        } finally {
+            invalidate(accountNumber);
+        }
+    }
+
+    @Override
+    public void saveAccount(Account account) {
+        delegate.saveAccount(account);
+        invalidate(account.getAccountNumber());
+    }
+
+    @Override
+    public int postInterestInDatabase(LocalDate asOf) {
+        try {
+            return delegate.postInterestInDatabase(asOf);
+        } finally {
+            clear();
+        }
+    }
+
+    public void invalidate(String accountNumber) {
+        if (!AccountId.isValid(accountNumber)) return;
+        long key = AccountId.encode(accountNumber);
+        synchronized (this) {
+            generation++;
+            Node node = index.remove(key);
+            if (node != null) unlink(node);
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        index.clear();
+        head = null;
+        tail = null;
+    }
+
+    // ---------------- Not cached ----------------
+    @Override
+    public List<Account> getAccountsForCustomer(int customerId) {
+        return delegate.getAccountsForCustomer(customerId);
+    }
+
+    @Override
+    public List<Account> findAllAccounts() {
+        return delegate.findAllAccounts();
+    }
+
+    @Override
+    public void forEachAccount(Consumer<Account> action) {
+        delegate.forEachAccount(action);
+    }
+
+    @Override
+    public void forEachAccountInRange(String fromInclusive, String toExclusive, Consumer<Account> action) {
+        delegate.forEachAccountInRange(fromInclusive, toExclusive, action);
+    }
+
+    @Override
+    public void forEachInterestDueAccountInRange(String fromInclusive, String toExclusive, LocalDate asOf, Consumer<Account> action) {
+        delegate.forEachInterestDueAccountInRange(fromInclusive, toExclusive, asOf, action);
+    }
+
+    @Override
+    public List<String> findInterestDueSplitPoints(LocalDate asOf, int partitions) {
+        return delegate.findInterestDueSplitPoints(asOf, partitions);
+    }
+
+    @Override
+    public List<Account> findAccountsByCustomer(int customerId) {
+        return delegate.findAccountsByCustomer(customerId);
+    }
+
+    @Override
+    public DashboardSnapshot loadDashboardSnapshot(int customerId, int recentCount) {
+        return delegate.loadDashboardSnapshot(customerId, recentCount);
+    }
+
+    @Override
+    public boolean accountExists(String accountNumber) {
+        return delegate.accountExists(accountNumber);
+    }
+
+    @Override
+    public List<Account> getRecentlyCreatedAccounts() {
+        return delegate.getRecentlyCreatedAccounts();
+    }
+
+    // ---------------- Statistics ----------------
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getExpirations() {
+        return expirations;
+    }
+
+    public synchronized double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    // ---------------- LRU list, callers hold the lock ----------------
+
+    // Fresh cached account or null; counts the hit or miss
+    private Account lookup(long key) {
+        Node node = index.get(key);
+        if (node != null) {
+            if (System.nanoTime() - node.loadedAt < ttlNanos) {
+                hits++;
+                moveToHead(node);
+                return node.account;
+            }
+            expirations++;
+            unlink(node);
+            index.remove(key);
+        }
+        misses++;
+        return null;
+    }
+
+    // Caches a copy of a loaded account unless something was invalidated since the load started
+    private void store(long key, Account account, long loadGeneration) {
+        if (generation != loadGeneration || index.containsKey(key)) return;
+        Account copy = copy(account);
+        if (copy == null) return;
+        Node node = new Node(key, copy, System.nanoTime());
+        index.put(key, node);
+        linkAtHead(node);
+        if (index.size() > maxEntries) evictTail();
+    }
+
+    private void linkAtHead(Node node) {
+        node.prev = null;
+        node.next = head;
+        if (head != null) head.prev = node;
+        head = node;
+        if (tail == null) tail = node;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev != null) node.prev.next = node.next;
+        else head = node.next;
+        if (node.next != null) node.next.prev = node.prev;
+        else tail = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    private void moveToHead(Node node) {
+        if (node == head) return;
+        unlink(node);
+        linkAtHead(node);
+    }
+
+    private void evictTail() {
+        Node victim = tail;
+        unlink(victim);
+        index.remove(victim.key);
+        evictions++;
+    }
+
+    // The state a fresh load of the row would have, in a new instance; null for types it cannot rebuild
+    private static Account copy(Account source) {
+        Account copy;
+        try {
+            if (source instanceof SavingsAccount) {
+                copy = new SavingsAccount(source.getBranch(), source.getCustomer(), new JDBCTransactionDAO());
+            } else if (source instanceof InvestmentAccount) {
+                copy = new InvestmentAccount(source.getBranch(), source.getCustomer(), new JDBCTransactionDAO());
+            } else if (source instanceof ChequeAccount) {
+                copy = new ChequeAccount(source.getBranch(), source.getCustomer());
+            } else {
+                return null;
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        copy.setAccountNumber(source.getAccountNumber());
+        copy.setBalance(source.getBalance());
+        copy.setVersion(source.getVersion());
+        if (source instanceof InterestBearing interestSource) {
+            Date lastInterestDate = interestSource.getLastInterestDate();
+            ((InterestBearing) copy).setLastInterestDate(lastInterestDate == null ? null : new Date(lastInterestDate.getTime()));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.bankaccount;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConnectionPool {
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final long waitTimeoutMillis;
+    private final boolean validateOnBorrow;
+    private final int statementCacheSize;
+
+    // Idle connections, most recently returned first
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    // One permit per connection that may be handed out at the same time
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+
+    // Statement cache counters: live connections are summed on read, closed ones are folded into retired*
+    private final Set<StatementCache> statementCaches = ConcurrentHashMap.newKeySet();
+    private long retiredStatementHits;
+    private long retiredStatementMisses;
+    private long retiredStatementEvictions;
+
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String username, String password,
+                          int minSize, int maxSize,
+                          long idleTimeoutMillis, long maxLifetimeMillis, long waitTimeoutMillis,
+                          boolean validateOnBorrow, int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.validateOnBorrow = validateOnBorrow;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::houseKeep, 0, 30, TimeUnit.SECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        try {
+            if (!permits.tryAcquire(waitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + waitTimeoutMillis
+                        + "ms waiting for a database connection (max pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (pooled.isExpired() || (validateOnBorrow && !pooled.isValid())) {
+                    pooled.closePhysically();
+                    continue;
+                }
+                return pooled.borrow();
+            }
+            return newConnection().borrow();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    public int getActiveConnections() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public synchronized long getStatementCacheHits() {
+        long hits = retiredStatementHits;
+        for (StatementCache cache : statementCaches) hits += cache.getHits();
+        return hits;
+    }
+
+    public synchronized long getStatementCacheMisses() {
+        long misses = retiredStatementMisses;
+        for (StatementCache cache : statementCaches) misses += cache.getMisses();
+        return misses;
+    }
+
+    public synchronized long getStatementCacheEvictions() {
+        long evictions = retiredStatementEvictions;
+        for (StatementCache cache : statementCaches) evictions += cache.getEvictions();
+        return evictions;
+    }
+
+    public synchronized double getStatementCacheHitRatio() {
+        long hits = getStatementCacheHits();
+        long total = hits + getStatementCacheMisses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    // Keeps a closed connection's statement cache counts in the pool totals
+    private synchronized void retire(StatementCache cache) {
+        if (!statementCaches.remove(cache)) return;
+        retiredStatementHits += cache.getHits();
+        retiredStatementMisses += cache.getMisses();
+        retiredStatementEvictions += cache.getEvictions();
+    }
+
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.closePhysically();
+        }
+    }
+
+    private PooledConnection newConnection() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, username, password);
+        totalConnections.incrementAndGet();
+        return new PooledConnection(raw);
+    }
+
+    private void release(PooledConnection pooled) {
+        try {
+            if (closed || pooled.isExpired() || !pooled.reset()) {
+                pooled.closePhysically();
+            } else {
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void houseKeep() {
+        try {
+            long now = System.currentTimeMillis();
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledConnection pooled = it.next();
+                boolean idleTooLong = now - pooled.lastUsedAt > idleTimeoutMillis
+                        && totalConnections.get() > minSize;
+                if ((idleTooLong || pooled.isExpired()) && idle.remove(pooled)) {
+                    pooled.closePhysically();
+                }
+            }
+
+            while (!closed && totalConnections.get() < minSize && permits.tryAcquire()) {
+                try {
+                    idle.offerLast(newConnection());
+                } finally {
+                    permits.release();
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Connection pool could not top up idle connections: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    private class PooledConnection {
+        private final Connection raw;
+        private final StatementCache statements;
+        private final long createdAt;
+        private volatile long lastUsedAt;
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+            this.statements = new StatementCache(statementCacheSize);
+            statementCaches.add(statements);
+            this.createdAt = System.currentTimeMillis();
+            this.lastUsedAt = createdAt;
+        }
+
+        Connection borrow() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, new Lease(this));
+        }
+
+        boolean isExpired() {
+            return maxLifetimeMillis > 0 && System.currentTimeMillis() - createdAt > maxLifetimeMillis;
+        }
+
+        boolean isValid() {
+            try {
+                return raw.isValid(2);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        // Undo anything the borrower changed so the next borrower gets a clean connection
+        boolean reset() {
+            try {
+                if (raw.isClosed()) return false;
+                if (!raw.getAutoCommit()) {
+                    raw.rollback();
+                    raw.setAutoCommit(true);
+                }
+                if (raw.isReadOnly()) raw.setReadOnly(false);
+                raw.clearWarnings();
+                lastUsedAt = System.currentTimeMillis();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysically() {
+            totalConnections.decrementAndGet();
+            statements.closeAll();
+            retire(statements);
+            DatabaseConnection.closeConnection(raw);
+        }
+    }
+
+    // The handle given to one borrower; closing it returns the connection instead of closing it
+    private class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!returned) {
+                            returned = true;
+                            release(pooled);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.raw + "]";
+                default:
+                    if (returned) throw new SQLException("Connection has already been returned to the pool");
+                    if (method.getName().equals("prepareStatement") && args.length <= 2
+                            && (args.length == 1 || args[1] instanceof Integer)) {
+                        Integer autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : null;
+                        return pooled.statements.prepare(pooled.raw, (Connection) proxy, (String) args[0], autoGeneratedKeys);
+                    }
+                    try {
+                        return method.invoke(pooled.raw, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
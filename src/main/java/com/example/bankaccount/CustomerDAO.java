@@ -1,15 +1,22 @@
 package com.example.bankaccount;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface CustomerDAO {
     void saveCustomer(Customer customer);
     Customer findCustomerById(int id);
+    Map<Integer, Customer> findCustomersByIds(Collection<Integer> ids);
     List<Customer> findAllCustomers();
     void updateCustomer(Customer customer);
     void deleteCustomer(int id);
     boolean customerExists(int id);
     List<Individual> getAllIndividuals();
     List<Company> getAllCompanies();
+    // Keyset pages for the teller tables: ordered by sortColumn then customerId, filter is a prefix of a
+    // name or ID/registration number, after is the last row of the previous page (null for the first)
+    List<Individual> findIndividualsPage(String sortColumn, boolean ascending, String filter, Individual after, int limit);
+    List<Company> findCompaniesPage(String sortColumn, boolean ascending, String filter, Company after, int limit);
 
 }
@@ -1,6 +1,7 @@
 package com.example.bankaccount;
 import com.example.bankaccount.Customer;
 
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -11,7 +12,13 @@ import javafx.geometry.Insets;
 import javafx.stage.Stage;
 import javafx.scene.Node;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 public class CustomerDashboardController {
 
@@ -26,34 +33,95 @@ public class CustomerDashboardController {
 
     private BankingService bankingService;
     private Customer loggedInCustomer;
-    CustomerDAO customerDAO = new JDBCCustomerDAO();
-    private JDBCAccountDAO accountDAO = new JDBCAccountDAO(customerDAO);
+
+    // Dashboard queries and changes run here instead of on the FX thread; daemon threads so they never hold
+    // up exit. Small and fixed, so stale loads queue up instead of each taking a thread and a pooled connection.
+    private static final ExecutorService LOADER = Executors.newFixedThreadPool(
+            Integer.getInteger("banking.dashboard.loaderThreads", 2), r -> {
+        Thread t = new Thread(r, "dashboard-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Loads started by the latest refresh; only touched on the FX thread
+    private final List<Task<?>> pendingLoads = new ArrayList<>();
 
     public void setCustomer(Customer customer) {
         this.loggedInCustomer = customer;
         this.bankingService = new BankingService();
 
-        List<Account> accounts = bankingService.getCustomerAccounts(customer.getCustomerId());
-        customer.setAccounts(accounts);
-
         refreshDashboard();
     }
 
+    // Shows placeholders straight away and fills the widgets in when the snapshot arrives.
+    // A new refresh cancels a load still running from the previous one.
     private void refreshDashboard() {
         if (loggedInCustomer == null) return;
 
+        cancelPendingLoads();
         welcomeLabel.setText("Welcome, " + loggedInCustomer.getDisplayName());
-        updateAccountsList();
-        updateBalance();
-        updateTransferCombo();
-        updateTransactionsList();
+        showLoadingPlaceholders();
+
+        // All four widgets come from one snapshot, so they always agree
+        int customerId = loggedInCustomer.getCustomerId();
+        load(() -> bankingService.getDashboardSnapshot(customerId, 10), snapshot -> {
+            loggedInCustomer.setAccounts(snapshot.accounts());
+            updateAccountsList(snapshot.accounts());
+            updateBalance(snapshot.totalBalance());
+            updateTransferCombo(snapshot.accounts());
+            updateTransactionsList(snapshot.recentActivity());
+        });
     }
 
-    private void updateAccountsList() {
-        if (loggedInCustomer == null) return;
+    // Reads: cancelled by the next refresh, since their results would be stale
+    private <T> void load(Callable<T> query, Consumer<T> onLoaded) {
+        Task<T> task = background(query, onLoaded, "Could not load dashboard");
+        pendingLoads.add(task);
+        LOADER.execute(task);
+    }
 
-        List<Account> accounts = accountDAO.findAccountsByCustomer(loggedInCustomer.getCustomerId());
+    // Deposits, withdrawals and transfers: never cancelled, so their outcome is always reported
+    private <T> void change(Callable<T> work, Consumer<T> onDone, String failurePrefix) {
+        LOADER.execute(background(work, onDone, failurePrefix));
+    }
+
+    private <T> Task<T> background(Callable<T> work, Consumer<T> onDone, String failurePrefix) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        // Both handlers run on the FX thread, and never for a task that was cancelled
+        task.setOnSucceeded(e -> {
+            pendingLoads.remove(task);
+            onDone.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            pendingLoads.remove(task);
+            showAlert("Error", failurePrefix + ": " + task.getException().getMessage());
+        });
+        return task;
+    }
+
+    private void cancelPendingLoads() {
+        for (Task<?> task : pendingLoads) {
+            task.cancel(true);
+        }
+        pendingLoads.clear();
+    }
+
+    private void showLoadingPlaceholders() {
+        accountsListView.getItems().clear();
+        accountsListView.setPlaceholder(new Label("Loading accounts..."));
+        balanceLabel.setText("Total Balance: loading...");
+        transferFromCombo.setDisable(true);
+        transactionsListView.getItems().setAll("Loading recent activity...");
+    }
+
+    private void updateAccountsList(List<Account> accounts) {
         accountsListView.getItems().setAll(accounts);
+        accountsListView.setPlaceholder(new Label("No accounts available"));
 
         accountsListView.setCellFactory(lv -> new ListCell<>() {
             @Override
@@ -75,21 +143,17 @@ public class CustomerDashboardController {
         });
     }
 
-    private void updateBalance() {
-        double total = bankingService.getCustomerAccounts(loggedInCustomer.getCustomerId())
-                .stream()
-                .mapToDouble(Account::getBalance)
-                .sum();
+    private void updateBalance(double total) {
         balanceLabel.setText("Total Balance: P" + String.format("%.2f", total));
 
         String color = total == 0 ? "#e74c3c" : total < 1000 ? "#f39c12" : "#bca014";
         balanceLabel.setStyle("-fx-text-fill: " + color + "; -fx-font-weight: bold;");
     }
 
-    private void updateTransferCombo() {
-        List<Account> accounts = accountDAO.findAccountsByCustomer(loggedInCustomer.getCustomerId());
+    private void updateTransferCombo(List<Account> accounts) {
         transferFromCombo.getItems().setAll(accounts);
         transferFromCombo.setValue(accounts.isEmpty() ? null : accounts.get(0));
+        transferFromCombo.setDisable(false);
 
         transferFromCombo.setCellFactory(lv -> new ListCell<>() {
             @Override
@@ -115,26 +179,19 @@ public class CustomerDashboardController {
         });
     }
 
-    private void updateTransactionsList() {
+    private void updateTransactionsList(List<Transaction> recent) {
         transactionsListView.getItems().clear();
-        List<Account> accounts = accountDAO.findAccountsByCustomer(loggedInCustomer.getCustomerId());
-        int count = 0;
-
-        for (Account account : accounts) {
-            List<Transaction> transactions = bankingService.getAccountTransactions(account.getAccountNumber());
-            for (Transaction t : transactions) {
-                if (count >= 10) break;
-                transactionsListView.getItems().add(String.format(
-                        "Acc #%s: %s - P%.2f (Bal: P%.2f)\n%s",
-                        t.getAccountNumber(),
-                        t.getTransactionType(),
-                        t.getAmount(),
-                        t.getBalance(),
-                        t.getDescription()
-                ));
-                count++;
-            }
-            if (count >= 10) break;
+
+        // Ten newest across all accounts, in time order
+        for (Transaction t : recent) {
+            transactionsListView.getItems().add(String.format(
+                    "Acc #%s: %s - P%.2f (Bal: P%.2f)\n%s",
+                    t.getAccountNumber(),
+                    t.getTransactionType(),
+                    t.getAmount(),
+                    t.getBalance(),
+                    t.getDescription()
+            ));
         }
 
         if (transactionsListView.getItems().isEmpty())
@@ -193,24 +250,22 @@ public class CustomerDashboardController {
         dialog.showAndWait().ifPresent(amount -> {
             String description = descriptionField.getText().isEmpty() ?
                     "Customer self-service " + type.toLowerCase() : descriptionField.getText();
-            try {
-                if (type.equals("Deposit")) {
-                    bankingService.deposit(account.getAccountNumber(), amount, description);
+            String accountNumber = account.getAccountNumber();
+
+            if (type.equals("Deposit")) {
+                change(() -> bankingService.deposit(accountNumber, amount, description), newBalance -> {
                     refreshDashboard();
                     showAlert("Deposit Successful",
-                            String.format("Deposited P%.2f to account #%d\nNew Balance: P%.2f",
-                                    amount, account.getAccountNumber(),
-                                    bankingService.getAccountBalance(account.getAccountNumber())));
-                } else {
-                    bankingService.withdraw(account.getAccountNumber(), amount, description);
+                            String.format("Deposited P%.2f to account #%s\nNew Balance: P%.2f",
+                                    amount, accountNumber, newBalance));
+                }, type + " failed");
+            } else {
+                change(() -> bankingService.withdraw(accountNumber, amount, description), newBalance -> {
                     refreshDashboard();
                     showAlert("Withdrawal Successful",
-                            String.format("Withdrew P%.2f from account #%d\nNew Balance: P%.2f",
-                                    amount, account.getAccountNumber(),
-                                    bankingService.getAccountBalance(account.getAccountNumber())));
-                }
-            } catch (Exception e) {
-                showAlert("Error", type + " failed: " + e.getMessage());
+                            String.format("Withdrew P%.2f from account #%s\nNew Balance: P%.2f",
+                                    amount, accountNumber, newBalance));
+                }, type + " failed");
             }
         });
     }
@@ -225,69 +280,69 @@ public class CustomerDashboardController {
 
     @FXML
     private void handleTransfer() {
-        try {
-            Account from = transferFromCombo.getValue();
-            if (from == null) {
-                showAlert("Error", "Select source account");
-                return;
-            }
+        Account from = transferFromCombo.getValue();
+        if (from == null) {
+            showAlert("Error", "Select source account");
+            return;
+        }
 
-            String toAccNumber = targetAccountField.getText().trim();
-            if (toAccNumber.isEmpty()) {
-                showAlert("Error", "Invalid target account");
-                return;
-            }
+        String toAccNumber = targetAccountField.getText().trim();
+        if (toAccNumber.isEmpty()) {
+            showAlert("Error", "Invalid target account");
+            return;
+        }
 
-            double amount;
-            try {
-                amount = Double.parseDouble(transferAmountField.getText());
-            } catch (NumberFormatException e) {
-                showAlert("Error", "Invalid amount");
-                return;
-            }
+        double amount;
+        try {
+            amount = Double.parseDouble(transferAmountField.getText());
+        } catch (NumberFormatException e) {
+            showAlert("Error", "Invalid amount");
+            return;
+        }
 
-            if (amount <= 0) {
-                showAlert("Error", "Amount must be positive");
-                return;
-            }
+        if (amount <= 0) {
+            showAlert("Error", "Amount must be positive");
+            return;
+        }
 
-            if (from.getBalance() < amount) {
-                showAlert("Error", "Insufficient funds");
-                return;
+        String fromAccNumber = from.getAccountNumber();
+        String desc = transferDescription.getText().isEmpty() ?
+                "Transfer to account #" + toAccNumber :
+                transferDescription.getText();
+
+        // The pre-check and the transfer both wait on the database, so neither runs on the FX thread
+        change(() -> {
+            // Both rows as they are now, in one lookup: the list may be stale and the target may not exist
+            Map<String, Account> current = bankingService.getAccounts(List.of(fromAccNumber, toAccNumber));
+            Account source = current.get(fromAccNumber);
+            if (source == null) {
+                throw new IllegalStateException("Source account #" + fromAccNumber + " no longer exists");
             }
-
-            Account to = bankingService.getAccount(toAccNumber);
-            if (to == null) {
-                showAlert("Error", "Target account not found");
-                return;
+            if (!current.containsKey(toAccNumber)) {
+                throw new IllegalStateException("Target account #" + toAccNumber + " not found");
+            }
+            if (source.getBalance() < amount) {
+                throw new IllegalStateException("Insufficient funds");
             }
 
-            String desc = transferDescription.getText().isEmpty() ?
-                    "Transfer to account #" + toAccNumber :
-                    transferDescription.getText();
-
-            // Perform the transfer
-            bankingService.withdraw(from.getAccountNumber(), amount, desc);
-            bankingService.deposit(toAccNumber, amount, "Transfer from account #" + from.getAccountNumber());
-
+            // A missing target account or short balance rolls back both legs
+            return bankingService.transfer(fromAccNumber, toAccNumber, amount, desc);
+        }, newBalance -> {
             refreshDashboard();
 
             showAlert("Success", String.format(
                     "Transferred P%.2f from #%s to #%s\nNew Balance (Source): P%.2f",
                     amount,
-                    from.getAccountNumber(),
+                    fromAccNumber,
                     toAccNumber,
-                    bankingService.getAccountBalance(from.getAccountNumber())
+                    newBalance
             ));
 
             // Clear fields
             targetAccountField.clear();
             transferAmountField.clear();
             transferDescription.clear();
-
-        } catch (Exception e) {
-            showAlert("Error", "Transfer failed: " + e.getMessage());
-        }
+        }, "Transfer failed");
     }
 
     @FXML private void handleRefresh() { refreshDashboard(); }
@@ -298,6 +353,7 @@ public class CustomerDashboardController {
             confirm.setTitle("Logout");
             confirm.setHeaderText("Are you sure you want to logout?");
             if (confirm.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) return;
+            cancelPendingLoads();
 
             FXMLLoader loader = new FXMLLoader(getClass().getResource("mainmenu.fxml"));
             Parent root = loader.load();
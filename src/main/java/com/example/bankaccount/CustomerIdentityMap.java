@@ -0,0 +1,101 @@
+package com.example.bankaccount;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// One Customer instance per customerId while it stays cached. Bounded LRU; entries expire after
+// ttlMillis so changes made by other processes are picked up. Writes go through JDBCCustomerDAO,
+// which evicts the customers it changes.
+public class CustomerIdentityMap {
+
+    public record Stats(int size, long hits, long misses, long evictions, long expirations, long invalidations) {
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private record Entry(Customer customer, long loadedAt) {
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Integer, Entry> customers;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private long generation;
+
+    public CustomerIdentityMap(int maxEntries, long ttlMillis) {
+        if (maxEntries < 1 || ttlMillis < 1) throw new IllegalArgumentException("Size and TTL must be positive");
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.customers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                if (size() <= CustomerIdentityMap.this.maxEntries) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    public synchronized Customer get(int customerId) {
+        Customer customer = fresh(customerId);
+        if (customer != null) hits++;
+        else misses++;
+        return customer;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    // Caches a freshly loaded customer and returns the canonical instance: the one already mapped if
+    // another thread got there first, or the loaded one uncached if a write happened since loadGeneration
+    public synchronized Customer register(Customer loaded, long loadGeneration) {
+        Customer existing = fresh(loaded.getCustomerId());
+        if (existing != null) return existing;
+        if (generation == loadGeneration) customers.put(loaded.getCustomerId(), new Entry(loaded, System.nanoTime()));
+        return loaded;
+    }
+
+    // For bulk reads: swaps in the cached instance if there is one, without caching new ones
+    public synchronized Customer canonical(Customer loaded) {
+        Customer existing = fresh(loaded.getCustomerId());
+        return existing != null ? existing : loaded;
+    }
+
+    public synchronized void invalidate(int customerId) {
+        generation++;
+        if (customers.remove(customerId) != null) invalidations++;
+    }
+
+    public synchronized void invalidateUsername(String username) {
+        generation++;
+        if (customers.values().removeIf(e -> username.equals(e.customer().getUsername()))) invalidations++;
+    }
+
+    public synchronized void clear() {
+        generation++;
+        customers.clear();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(customers.size(), hits, misses, evictions, expirations, invalidations);
+    }
+
+    // The mapped customer if it has not expired; an expired one is dropped. Callers hold the lock
+    private Customer fresh(int customerId) {
+        Entry entry = customers.get(customerId);
+        if (entry == null) return null;
+        if (System.nanoTime() - entry.loadedAt() < ttlNanos) return entry.customer();
+        customers.remove(customerId);
+        expirations++;
+        return null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.bankaccount;
+
+import java.util.List;
+
+// Everything the customer dashboard shows, read in one database transaction so the accounts,
+// the total and the recent activity all agree with each other
+public record DashboardSnapshot(List<Account> accounts, double totalBalance, List<Transaction> recentActivity) {
+}
@@ -1,25 +1,59 @@
 package com.example.bankaccount;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnection {
 
-    private static final String URL = "jdbc:mysql://localhost:3306/bankingdb?useSSL=false";
+    // useLocalSessionState stops the driver from asking the server for autocommit/read-only on every pool return;
+    // useServerPrepStmts lets the statement cache reuse statements the server has already parsed and planned;
+    // useCursorFetch makes a positive fetch size read through a server-side cursor;
+    // rewriteBatchedStatements sends an executeBatch() as multi-row statements instead of one per row
+    private static final String URL = "jdbc:mysql://localhost:3306/bankingdb?useSSL=false&useLocalSessionState=true"
+            + "&useServerPrepStmts=true&useCursorFetch=true&rewriteBatchedStatements=true";
     private static final String USERNAME = "root";          //
     private static final String PASSWORD = "";  //
 
+    // Pool settings, overridable with -Dbanking.db.pool.<name>=<value>
+    private static final int POOL_MIN_SIZE = Integer.getInteger("banking.db.pool.minSize", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("banking.db.pool.maxSize", 20);
+    private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("banking.db.pool.idleTimeoutMs", 10 * 60 * 1000L);
+    private static final long POOL_MAX_LIFETIME_MS = Long.getLong("banking.db.pool.maxLifetimeMs", 30 * 60 * 1000L);
+    private static final long POOL_WAIT_TIMEOUT_MS = Long.getLong("banking.db.pool.waitTimeoutMs", 30 * 1000L);
+    private static final boolean POOL_VALIDATE_ON_BORROW =
+            Boolean.parseBoolean(System.getProperty("banking.db.pool.validateOnBorrow", "true"));
+    // Prepared statements kept per pooled connection; 0 turns the cache off
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("banking.db.pool.statementCacheSize", 64);
+
+    // Rows per round trip for full-table scans such as AccountDAO.forEachAccount
+    public static final int STREAM_FETCH_SIZE = Integer.getInteger("banking.db.streamFetchSize", 1000);
+
+    private static final ConnectionPool POOL;
+
     static {
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("MySQL JDBC Driver not found!", e);
         }
+
+        POOL = new ConnectionPool(URL, USERNAME, PASSWORD,
+                POOL_MIN_SIZE, POOL_MAX_SIZE,
+                POOL_IDLE_TIMEOUT_MS, POOL_MAX_LIFETIME_MS, POOL_WAIT_TIMEOUT_MS,
+                POOL_VALIDATE_ON_BORROW, STATEMENT_CACHE_SIZE);
     }
 
+    // Borrows a pooled connection; closing it hands it back to the pool
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        return POOL.getConnection();
+    }
+
+    public static ConnectionPool getPool() {
+        return POOL;
+    }
+
+    public static void shutdown() {
+        POOL.close();
     }
 
     public static void closeConnection(Connection connection) {
@@ -32,4 +66,3 @@ public class DatabaseConnection {
         }
     }
 }
-
@@ -14,6 +14,8 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.ArrayList;
 import javafx.stage.Stage;
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
 
 
 import com.example.bankaccount.Customer;
@@ -46,16 +48,36 @@ public class ExistingCustomerController {
     @FXML private TableColumn<Account, String> accTypeCol;
     @FXML private TableColumn<Account, Double> accBalanceCol;
 
+    @FXML private TextField individualFilterField;
+    @FXML private Button individualPrevButton;
+    @FXML private Button individualNextButton;
+    @FXML private Label individualPageLabel;
+    @FXML private TextField companyFilterField;
+    @FXML private Button companyPrevButton;
+    @FXML private Button companyNextButton;
+    @FXML private Label companyPageLabel;
+
+    // Rows per table page; the tables only ever hold this many customers (plus a prefetched next page)
+    private static final int PAGE_SIZE = 50;
+
+    // Builds the page query for a sort key, direction and filter
+    private interface PageQueryFactory<T> {
+        KeysetPager.PageQuery<T> create(String sortColumn, boolean ascending, String filter);
+    }
+
 
     private CustomerDAO customerDAO = new JDBCCustomerDAO();
     private AccountDAO accountDAO = new JDBCAccountDAO(customerDAO);
     private BankTeller currentTeller;
     private BankingService bankingService;
 
+    private KeysetPager<Individual> individualPager;
+    private KeysetPager<Company> companyPager;
+
     @FXML
     public void initialize() {
         setupColumns();
-        loadCustomers();
+        setupPaging();
 
         individualTable.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) ->
                 loadAccountsForCustomer(newVal));
@@ -86,15 +108,78 @@ public class ExistingCustomerController {
         accBalanceCol.setCellValueFactory(new PropertyValueFactory<>("balance"));
     }
 
-    private void loadCustomers() {
-        individualTable.setItems(
-                FXCollections.observableArrayList(customerDAO.getAllIndividuals())
-        );
-        companyTable.setItems(
-                FXCollections.observableArrayList(customerDAO.getAllCompanies())
-        );
+    // The customer tables show one page at a time. Sorting a column and typing in the filter box
+    // re-query the database instead of sorting or filtering rows in memory.
+    private void setupPaging() {
+        indNameCol.setUserData("firstName");
+        indSurnameCol.setUserData("surname");
+        indIdCol.setUserData("idNumber");
+        compNameCol.setUserData("companyName");
+        compRegCol.setUserData("registrationNumber");
+        // businessType is nullable and has no (value, customerId) index, so it cannot be keyset-sorted cheaply
+        compTypeCol.setSortable(false);
+
+        individualPager = new KeysetPager<>(PAGE_SIZE, () ->
+                updatePagingControls(individualTable, individualPager, individualPrevButton, individualNextButton, individualPageLabel),
+                e -> showAlert("Error", "Failed to load individual customers: " + e.getMessage()));
+        companyPager = new KeysetPager<>(PAGE_SIZE, () ->
+                updatePagingControls(companyTable, companyPager, companyPrevButton, companyNextButton, companyPageLabel),
+                e -> showAlert("Error", "Failed to load company customers: " + e.getMessage()));
+
+        setupPagedTable(individualTable, individualPager, individualFilterField, indSurnameCol,
+                (sort, asc, filter) -> (after, limit) -> customerDAO.findIndividualsPage(sort, asc, filter, after, limit));
+        setupPagedTable(companyTable, companyPager, companyFilterField, compNameCol,
+                (sort, asc, filter) -> (after, limit) -> customerDAO.findCompaniesPage(sort, asc, filter, after, limit));
+    }
+
+    private <T> void setupPagedTable(TableView<T> table, KeysetPager<T> pager, TextField filterField,
+                                     TableColumn<T, ?> defaultSort, PageQueryFactory<T> queries) {
+        table.setItems(pager.getItems());
+
+        String[] lastQuery = {null};
+        Runnable requery = () -> {
+            TableColumn<T, ?> column = table.getSortOrder().isEmpty() ? defaultSort : table.getSortOrder().get(0);
+            String sortColumn = (String) column.getUserData();
+            boolean ascending = column.getSortType() == TableColumn.SortType.ASCENDING;
+            String filter = filterField.getText() == null ? "" : filterField.getText().trim();
+
+            // The sort policy also fires when the page's rows are replaced; only a real change re-queries
+            String key = sortColumn + "|" + ascending + "|" + filter;
+            if (key.equals(lastQuery[0])) return;
+            lastQuery[0] = key;
+            pager.reset(queries.create(sortColumn, ascending, filter));
+        };
+
+        table.setSortPolicy(t -> {
+            requery.run();
+            return true;
+        });
+
+        // Wait for a pause in typing before querying
+        PauseTransition filterDelay = new PauseTransition(Duration.millis(300));
+        filterDelay.setOnFinished(e -> requery.run());
+        filterField.textProperty().addListener((obs, oldVal, newVal) -> filterDelay.playFromStart());
+
+        table.getSortOrder().setAll(List.of(defaultSort));
+        requery.run();
+    }
+
+    private <T> void updatePagingControls(TableView<T> table, KeysetPager<T> pager,
+                                          Button prev, Button next, Label pageLabel) {
+        prev.setDisable(pager.isLoading() || !pager.hasPrevious());
+        next.setDisable(pager.isLoading() || !pager.hasNext());
+        pageLabel.setText(pager.isLoading() ? "Loading..." : "Page " + pager.getPageNumber());
+        table.setPlaceholder(new Label(pager.isLoading() ? "Loading customers..." : "No customers found"));
     }
 
+    @FXML private void handleIndividualPrev() { individualPager.previous(); }
+
+    @FXML private void handleIndividualNext() { individualPager.next(); }
+
+    @FXML private void handleCompanyPrev() { companyPager.previous(); }
+
+    @FXML private void handleCompanyNext() { companyPager.next(); }
+
     private void loadAccountsForCustomer(Customer customer) {
         if (customer == null) {
             accountsTable.setItems(FXCollections.observableArrayList());
@@ -180,7 +265,8 @@ public class ExistingCustomerController {
                 showAlert("Error: " + ex.getMessage());
             }
 
-            loadCustomers();
+            individualPager.reload();
+            companyPager.reload();
         }
     }
 
@@ -215,6 +301,9 @@ public class ExistingCustomerController {
     @FXML
     private void handleBack() {
         try {
+            individualPager.cancel();
+            companyPager.cancel();
+
             Stage currentStage = (Stage) individualTable.getScene().getWindow();
             currentStage.close();
 
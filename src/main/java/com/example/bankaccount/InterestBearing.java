@@ -1,9 +1,16 @@
 package com.example.bankaccount;
 
+import java.time.LocalDate;
 import java.util.Date;
 
 public interface InterestBearing {
     boolean applyInterestIfDue();
+    // Updates balance and lastInterestDate and returns the INTEREST transaction without saving it; null if nothing is due
+    default Transaction accrueInterestIfDue() {
+        return accrueInterestIfDue(LocalDate.now());
+    }
+    // Same, counting whole months up to asOf instead of today
+    Transaction accrueInterestIfDue(LocalDate asOf);
     Date getLastInterestDate();
     void setLastInterestDate(Date lastInterestDate);
 }
\ No newline at end of file
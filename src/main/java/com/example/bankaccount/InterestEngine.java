@@ -0,0 +1,144 @@
+package com.example.bankaccount;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Applies due interest by splitting the due accounts into account-number ranges of about the same
+// size and working through them concurrently. Each worker streams its own range on its own pooled connection.
+public class InterestEngine {
+
+    // Held at once by each worker: the account cursor, the customer lookup for the current chunk
+    // and the posting writer's batch
+    static final int CONNECTIONS_PER_WORKER = 3;
+
+    private final BankingService bankingService;
+    private final int partitions;
+    private final int workers;
+    private final int batchSize;
+
+    public record PartitionReport(int partition, String fromAccount, String toAccount,
+                                  long scanned, long applied, long failed, long elapsedMillis) {
+        @Override
+        public String toString() {
+            return String.format("partition %d [%s, %s): scanned=%d applied=%d failed=%d in %d ms",
+                    partition,
+                    fromAccount == null ? "-" : fromAccount,
+                    toAccount == null ? "-" : toAccount,
+                    scanned, applied, failed, elapsedMillis);
+        }
+    }
+
+    public InterestEngine(BankingService bankingService, int partitions, int workers, int batchSize) {
+        if (partitions < 1 || workers < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Partitions, workers and batch size must be positive");
+        }
+        // Fewer connections than that and workers end up waiting on each other for pool permits
+        int poolSize = DatabaseConnection.getPool().getMaxSize();
+        if (workers * CONNECTIONS_PER_WORKER > poolSize) {
+            throw new IllegalArgumentException(workers + " interest workers need " + workers * CONNECTIONS_PER_WORKER
+                    + " pooled connections, but banking.db.pool.maxSize is " + poolSize);
+        }
+        this.bankingService = bankingService;
+        this.partitions = partitions;
+        this.workers = workers;
+        this.batchSize = batchSize;
+    }
+
+    public List<PartitionReport> run() {
+        LocalDate today = LocalDate.now();
+        List<String[]> ranges = partitionRanges(today);
+        AtomicInteger completed = new AtomicInteger();
+        List<Callable<PartitionReport>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < ranges.size(); i++) {
+            int partition = i;
+            String[] range = ranges.get(i);
+            tasks.add(() -> {
+                PartitionReport report = runPartition(partition, range[0], range[1], today);
+                System.out.printf("[InterestEngine] %s (%d/%d done)%n", report, completed.incrementAndGet(), ranges.size());
+                return report;
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            List<PartitionReport> reports = new ArrayList<>();
+            for (Future<PartitionReport> future : pool.invokeAll(tasks)) {
+                try {
+                    reports.add(future.get());
+                } catch (ExecutionException e) {
+                    System.err.println("[InterestEngine] Partition failed: " + e.getCause());
+                }
+            }
+            return reports;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interest run interrupted", e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private PartitionReport runPartition(int partition, String from, String to, LocalDate today) {
+        long start = System.currentTimeMillis();
+        long[] scanned = {0};
+        long[] failed = {0};
+        long[] retried = {0};
+
+        // A teller changed the account mid-run: reload it and post its interest on its own
+        Consumer<Account> onConflict = acc -> {
+            try {
+                if (bankingService.applyInterestWithRetry(acc.getAccountNumber())) retried[0]++;
+            } catch (RuntimeException e) {
+                failed[0]++;
+                System.err.println("[InterestEngine] Interest retry failed for account " + acc.getAccountNumber() + ": " + e.getMessage());
+            }
+        };
+
+        // The writer updates balances behind the account cache's back, so each account it writes is evicted
+        Consumer<String> evict = BankingService.getAccountCache()::invalidate;
+
+        try (InterestPostingWriter writer = new InterestPostingWriter(batchSize, onConflict, evict)) {
+            // Only due accounts come back; accrueInterestIfDue still re-checks each one
+            bankingService.forEachInterestDueAccountInRange(from, to, today, acc -> {
+                scanned[0]++;
+                if (!(acc instanceof InterestBearing interestAcc)) return;
+                try {
+                    Transaction interest = interestAcc.accrueInterestIfDue(today);
+                    if (interest != null) {
+                        writer.add(acc, interest);
+                    }
+                } catch (RuntimeException e) {
+                    failed[0]++;
+                    System.err.println("[InterestEngine] Interest failed for account " + acc.getAccountNumber() + ": " + e.getMessage());
+                }
+            });
+            writer.flush();
+
+            return new PartitionReport(partition, from, to, scanned[0], writer.getPosted() + retried[0],
+                    failed[0] + writer.getFailed(), System.currentTimeMillis() - start);
+        }
+    }
+
+    // Ranges cut at the split points of the due set, so each holds about the same number of due accounts
+    // whatever the allocator's numbering looks like. The outer bounds are left open so nothing is missed.
+    private List<String[]> partitionRanges(LocalDate today) {
+        List<String> splitPoints = bankingService.getInterestDueSplitPoints(today, partitions);
+        List<String[]> ranges = new ArrayList<>();
+
+        String from = null;
+        for (String splitPoint : splitPoints) {
+            ranges.add(new String[]{from, splitPoint});
+            from = splitPoint;
+        }
+        ranges.add(new String[]{from, null});
+        return ranges;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.bankaccount;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Collects interest postings and writes them in chunks: one batched balance update, one batched
+// INTEREST insert and one commit per chunk, instead of two round trips per account.
+public class InterestPostingWriter implements AutoCloseable {
+
+    private final int chunkSize;
+    private final Consumer<Account> onConflict;
+    private final Consumer<String> onWritten;
+    private final List<Account> accounts = new ArrayList<>();
+    private final List<Transaction> transactions = new ArrayList<>();
+
+    private long posted;
+    private long failed;
+
+    // onConflict receives accounts whose row changed after they were read; they are left uncredited.
+    // onWritten receives the number of every account in a chunk once its write has been attempted,
+    // committed or not, so a cache in front of the account table can drop it.
+    public InterestPostingWriter(int chunkSize, Consumer<Account> onConflict, Consumer<String> onWritten) {
+        if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be positive");
+        this.chunkSize = chunkSize;
+        this.onConflict = onConflict;
+        this.onWritten = onWritten;
+    }
+
+    public void add(Account account, Transaction interestTransaction) {
+        accounts.add(account);
+        transactions.add(interestTransaction);
+        if (accounts.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        if (accounts.isEmpty()) return;
+
+        List<Account> conflicts = List.of();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                conflicts = JDBCAccountDAO.updateInterestBalances(conn, accounts);
+
+                // Only record interest for the rows that were actually credited
+                List<Transaction> credited = new ArrayList<>(transactions.size());
+                for (int i = 0; i < accounts.size(); i++) {
+                    if (!conflicts.contains(accounts.get(i))) credited.add(transactions.get(i));
+                }
+                JDBCTransactionDAO.saveTransactions(conn, credited);
+                conn.commit();
+                posted += credited.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            failed += accounts.size();
+            System.err.println("[InterestPostingWriter] Failed to post interest for " + accounts.size()
+                    + " accounts starting at " + accounts.get(0).getAccountNumber() + ": " + e.getMessage());
+        } finally {
+            for (Account account : accounts) {
+                onWritten.accept(account.getAccountNumber());
+            }
+            accounts.clear();
+            transactions.clear();
+        }
+
+        // Handled after the chunk's connection is back in the pool
+        for (Account conflict : conflicts) {
+            onConflict.accept(conflict);
+        }
+    }
+
+    public long getPosted() {
+        return posted;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
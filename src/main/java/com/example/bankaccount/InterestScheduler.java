@@ -1,5 +1,6 @@
 package com.example.bankaccount;
 
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.Executors;
@@ -8,12 +9,23 @@ import java.util.concurrent.TimeUnit;
 
 public class InterestScheduler {
 
+    // Each worker holds up to three pooled connections (cursor, customer lookups, writes);
+    // InterestEngine refuses a worker count that banking.db.pool.maxSize cannot cover
+    private static final int PARTITIONS = Integer.getInteger("banking.interest.partitions", 16);
+    private static final int WORKERS = Integer.getInteger("banking.interest.workers", 4);
+    // Interest postings written per batch/commit
+    private static final int BATCH_SIZE = Integer.getInteger("banking.interest.batchSize", 500);
+    // "objects" loads and credits accounts in Java; "sql" does the whole posting inside the database
+    private static final String MODE = System.getProperty("banking.interest.mode", "objects");
+
     private final BankingService bankingService;
     private final ScheduledExecutorService scheduler;
+    private final InterestEngine engine;
 
     public InterestScheduler(BankingService bankingService) {
         this.bankingService = bankingService;
         this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.engine = new InterestEngine(bankingService, PARTITIONS, WORKERS, BATCH_SIZE);
     }
 
     // Start the scheduler
@@ -31,18 +43,23 @@ public class InterestScheduler {
         try {
             System.out.println("[InterestScheduler] Checking accounts for due interest...");
 
-            List<Account> allAccounts = bankingService.getAllAccounts();
-            for (Account acc : allAccounts) {
-                if (acc instanceof InterestBearing interestAcc) {
-                    boolean applied = interestAcc.applyInterestIfDue();
-                    if (applied) {
-
-                        bankingService.updateAccount(acc);
-                    }
-                }
+            if ("sql".equalsIgnoreCase(MODE)) {
+                long start = System.currentTimeMillis();
+                int posted = bankingService.postInterestInDatabase(LocalDate.now());
+                System.out.printf("[InterestScheduler] Interest posted in database for %d accounts in %d ms%n",
+                        posted, System.currentTimeMillis() - start);
+                return;
             }
 
-            System.out.println("[InterestScheduler] Interest check completed.");
+            long start = System.currentTimeMillis();
+            List<InterestEngine.PartitionReport> reports = engine.run();
+
+            long scanned = reports.stream().mapToLong(InterestEngine.PartitionReport::scanned).sum();
+            long applied = reports.stream().mapToLong(InterestEngine.PartitionReport::applied).sum();
+            long failed = reports.stream().mapToLong(InterestEngine.PartitionReport::failed).sum();
+
+            System.out.printf("[InterestScheduler] Interest check completed: %d partitions, scanned=%d applied=%d failed=%d in %d ms%n",
+                    reports.size(), scanned, applied, failed, System.currentTimeMillis() - start);
         } catch (Exception e) {
             e.printStackTrace();
             System.out.println("[InterestScheduler] ERROR — Scheduler crashed!");
@@ -7,7 +7,7 @@ import java.util.Date;
 
 public class InvestmentAccount extends Account implements InterestBearing, Withdrawable {
     private static final double MINIMUM_DEPOSIT = 500.0;
-    private static final double INTEREST_RATE = 0.05; // 5%
+    static final double INTEREST_RATE = 0.05; // 5%
     private final LocalDate maturityDate;
     private Date lastInterestDate;
     private JDBCTransactionDAO transactionDAO;
@@ -28,6 +28,15 @@ public class InvestmentAccount extends Account implements InterestBearing, Withd
 
     @Override
     public boolean applyInterestIfDue() {
+        Transaction transaction = accrueInterestIfDue();
+        if (transaction == null) return false;
+
+        saveInterestTransaction(transaction, transactionDAO);
+        return true;
+    }
+
+    @Override
+    public Transaction accrueInterestIfDue(LocalDate asOf) {
         if (lastInterestDate == null) {
             lastInterestDate = new Date(); // initialize to account creation date
         }
@@ -35,26 +44,20 @@ public class InvestmentAccount extends Account implements InterestBearing, Withd
         LocalDate lastAppliedDate = lastInterestDate.toInstant()
                 .atZone(ZoneId.systemDefault())
                 .toLocalDate();
-        LocalDate today = LocalDate.now();
-
-        long monthsElapsed = ChronoUnit.MONTHS.between(lastAppliedDate, today);
-        if (monthsElapsed < 1) return false; // no interest due
+        long monthsElapsed = ChronoUnit.MONTHS.between(lastAppliedDate, asOf);
+        if (monthsElapsed < 1) return null;
 
         double interestAmount = getBalance() * getInterestRate() * monthsElapsed;
 
         setBalance(getBalance() + interestAmount);
-        addInterestTransaction(interestAmount, "Monthly Interest", transactionDAO);
-
-        lastInterestDate = java.sql.Date.valueOf(today);
-        return true;
-    }
-
-    protected void addInterestTransaction(double interestAmount, String description, JDBCTransactionDAO transactionDAO) {
-        Transaction transaction = new Transaction(getAccountNumber(), "INTEREST", interestAmount, getBalance(), description);
-
+        Transaction transaction = new Transaction(getAccountNumber(), "INTEREST", interestAmount, getBalance(), "Monthly Interest");
         getTransactionHistory().add(transaction);
 
+        lastInterestDate = java.sql.Date.valueOf(asOf);
+        return transaction;
+    }
 
+    protected void saveInterestTransaction(Transaction transaction, JDBCTransactionDAO transactionDAO) {
         try {
             transactionDAO.saveTransaction(transaction);
         } catch (SQLException e) {
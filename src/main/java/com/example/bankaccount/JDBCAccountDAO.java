@@ -1,55 +1,139 @@
 package com.example.bankaccount;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
 import java.util.Date;
-
-import static javax.management.remote.JMXConnectorFactory.connect;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class JDBCAccountDAO implements AccountDAO {
 
-    private static final String URL = "jdbc:mysql://localhost:3306/bankingdb";
-    private static final String USER = "root";
-    private static final String PASSWORD = "";
+    // Account rows buffered before their customers are fetched with one IN (...) query
+    private static final int CUSTOMER_FETCH_CHUNK = SqlInList.MAX_CHUNK_SIZE;
+
+    // accountType values of interest-bearing accounts, including the older "...Account" spelling
+    private static final List<String> SAVINGS_TYPES = List.of("savings", "savingsaccount");
+    private static final List<String> INVESTMENT_TYPES = List.of("investment", "investmentaccount");
+    static final List<String> INTEREST_BEARING_TYPES =
+            Stream.concat(SAVINGS_TYPES.stream(), INVESTMENT_TYPES.stream()).toList();
+
+    // accountType values of accounts that implement Withdrawable
+    private static final List<String> WITHDRAWABLE_TYPES =
+            List.of("cheque", "investment", "chequeaccount", "investmentaccount");
 
     private final CustomerDAO customerDAO;
 
     private Connection connect() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return DatabaseConnection.getConnection();
     }
 
     public JDBCAccountDAO(CustomerDAO customerDAO) {
         this.customerDAO = customerDAO;
     }
 
+    // Shared by every DAO instance. Tunable with -Dbanking.accountNumber.blockSize and .checkDigit
+    private static final AccountNumberAllocator ACCOUNT_NUMBERS = new AccountNumberAllocator(
+            Integer.getInteger("banking.accountNumber.blockSize", 1000),
+            Boolean.parseBoolean(System.getProperty("banking.accountNumber.checkDigit", "true")));
+
     private String generateAccountNumber() {
-        // Always starts with 7, then 11 random digits
-        StringBuilder sb = new StringBuilder("7");
-        for (int i = 0; i < 11; i++) {
-            sb.append((int) (Math.random() * 10));
-        }
-        return sb.toString();
+        // Always 12 digits starting with 7; unique without checking the account table
+        return ACCOUNT_NUMBERS.next();
+    }
+
+    // Raw account columns, kept until the owning customers have been fetched in bulk
+    record AccountRow(String accountNumber, String branch, double balance, String type,
+                              int customerId, Date lastInterestDate, long version) {
     }
 
-    private Account createAccountObject(String type, String branch, Customer customer) {
-        if (type == null) return null;
+    private AccountRow readRow(ResultSet rs) throws SQLException {
+        java.sql.Date lastInterest = rs.getDate("lastInterestDate");
+        return new AccountRow(
+                rs.getString("accountNumber"),
+                rs.getString("branch"),
+                rs.getDouble("balance"),
+                rs.getString("accountType"),
+                rs.getInt("customerId"),
+                lastInterest != null ? new Date(lastInterest.getTime()) : null,
+                rs.getLong("version")
+        );
+    }
+
+    Account toAccount(AccountRow row, Customer customer, JDBCTransactionDAO transactionDAO) {
+        if (customer == null) {
+            System.out.println("Customer " + row.customerId() + " not found. Skipping account " + row.accountNumber());
+            return null;
+        }
 
-        String normalized = type.trim().toLowerCase();
+        String type = row.type() == null ? "" : row.type().trim().toLowerCase().replace("account", "");
+        Account acc;
 
-        switch (normalized) {
+        switch (type) {
             case "savings":
-                return new SavingsAccount(branch, customer);
+                acc = new SavingsAccount(row.branch(), customer, transactionDAO);
+                break;
             case "investment":
-                return new InvestmentAccount(branch, customer, 0.0);
+                acc = new InvestmentAccount(row.branch(), customer, transactionDAO);
+                break;
             case "cheque":
-                return new ChequeAccount(branch, customer);
+                if (!(customer instanceof Individual)) {
+                    System.out.println("Skipping Cheque account " + row.accountNumber() + " for non-individual customer");
+                    return null;
+                }
+                try {
+                    acc = new ChequeAccount(row.branch(), customer);
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Skipping Cheque account " + row.accountNumber() + ": " + e.getMessage());
+                    return null;
+                }
+                break;
             default:
-                System.out.println("Unknown account type: " + type);
+                System.out.println("Skipping unknown account type " + row.type() + " for account " + row.accountNumber());
                 return null;
         }
+
+        acc.setAccountNumber(row.accountNumber());
+        acc.setBalance(row.balance());
+        acc.setVersion(row.version());
+
+        if (acc instanceof InterestBearing interestAcc) {
+            interestAcc.setLastInterestDate(row.lastInterestDate() != null
+                    ? row.lastInterestDate()
+                    : customer.getRegistrationDate());
+        }
+
+        return acc;
     }
 
+    // Turns buffered rows into accounts, fetching only the customers not already in the map
+    private void hydrate(List<AccountRow> rows, Map<Integer, Customer> customers,
+                         JDBCTransactionDAO transactionDAO, Consumer<Account> out) {
+        Set<Integer> missing = new HashSet<>();
+        for (AccountRow row : rows) {
+            if (!customers.containsKey(row.customerId())) missing.add(row.customerId());
+        }
+        if (!missing.isEmpty()) {
+            Map<Integer, Customer> found = customerDAO.findCustomersByIds(missing);
+            for (Integer id : missing) {
+                // A null entry remembers a missing customer so it is not queried again
+                customers.put(id, found.get(id));
+            }
+        }
+
+        for (AccountRow row : rows) {
+            Account acc = toAccount(row, customers.get(row.customerId()), transactionDAO);
+            if (acc != null) out.accept(acc);
+        }
+    }
 
     @Override
     public void saveAccount(Account account) {
@@ -115,156 +199,232 @@ public class JDBCAccountDAO implements AccountDAO {
     @Override
     public Account findAccountByNumber(String accountNumber) {
         String sql = "SELECT * FROM account WHERE accountNumber = ?";
+        AccountRow row;
 
         try (Connection conn = connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, accountNumber);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                String branch = rs.getString("branch");
-                double balance = rs.getDouble("balance");
-                String type = rs.getString("accountType");
-                int customerId = rs.getInt("customerId");
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) return null;
+                row = readRow(rs);
+            }
 
-                Customer customer = new JDBCCustomerDAO().findCustomerById(customerId);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding account by number", e);
+        }
 
-                Account acc = createAccountObject(type, branch, customer);
-                acc.setAccountNumber(accountNumber);
-                acc.setBalance(balance);
+        return toAccount(row, customerDAO.findCustomerById(row.customerId()), new JDBCTransactionDAO());
+    }
 
-                return acc;
+    @Override
+    public Map<String, Account> findAccountsByNumbers(Collection<String> accountNumbers) {
+        Map<String, Account> accounts = new LinkedHashMap<>();
+        if (accountNumbers.isEmpty()) return accounts;
+
+        List<AccountRow> rows = new ArrayList<>();
+        try (Connection conn = connect()) {
+            for (List<String> chunk : SqlInList.chunks(new LinkedHashSet<>(accountNumbers))) {
+                int size = SqlInList.paddedSize(chunk.size());
+                String sql = "SELECT * FROM account WHERE accountNumber IN (" + SqlInList.placeholders(size) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < size; i++) {
+                        // Pad with the last number so the SQL text stays one of a few cached shapes
+                        stmt.setString(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) rows.add(readRow(rs));
+                    }
+                }
             }
-
         } catch (SQLException e) {
-            throw new RuntimeException("Error finding account by number", e);
+            throw new RuntimeException("Error finding accounts by number", e);
         }
 
-        return null;
+        // All owners in one batched customer lookup
+        hydrate(rows, new HashMap<>(), new JDBCTransactionDAO(), acc -> accounts.put(acc.getAccountNumber(), acc));
+        return accounts;
     }
 
     @Override
     public List<Account> findAllAccounts() {
         List<Account> accounts = new ArrayList<>();
-        String sql = "SELECT * FROM account";
+        forEachAccount(accounts::add);
+        return accounts;
+    }
+
+    @Override
+    public void forEachAccount(Consumer<Account> action) {
+        forEachAccountInRange(null, null, action);
+    }
+
+    @Override
+    public void forEachAccountInRange(String fromInclusive, String toExclusive, Consumer<Account> action) {
+        streamAccounts("SELECT * FROM account", new ArrayList<>(), fromInclusive, toExclusive, action);
+    }
+
+    @Override
+    public void forEachInterestDueAccountInRange(String fromInclusive, String toExclusive, LocalDate asOf,
+                                                 Consumer<Account> action) {
+        // Served by the (accountType, lastInterestDate) index, so only the due set is read.
+        // Due means at least one whole month has passed, the same rule applyInterestIfDue uses.
+        String sql = "SELECT * FROM account WHERE accountType IN (" + SqlInList.placeholders(INTEREST_BEARING_TYPES.size())
+                + ") AND lastInterestDate <= ?";
+        List<Object> params = new ArrayList<>(INTEREST_BEARING_TYPES);
+        params.add(java.sql.Date.valueOf(interestDueCutoff(asOf)));
+
+        streamAccounts(sql, params, fromInclusive, toExclusive, action);
+    }
+
+    @Override
+    public List<String> findInterestDueSplitPoints(LocalDate asOf, int partitions) {
+        // NTILE over the due set in key order, read from the (accountType, lastInterestDate) index;
+        // the first account number of every tile after the first is a split point
+        String sql = "SELECT MIN(accountNumber) FROM (SELECT accountNumber, NTILE(?) OVER (ORDER BY accountNumber) AS tile "
+                + "FROM account WHERE accountType IN (" + SqlInList.placeholders(INTEREST_BEARING_TYPES.size())
+                + ") AND lastInterestDate <= ?) tiles GROUP BY tile HAVING tile > 1 ORDER BY tile";
+
+        List<String> splitPoints = new ArrayList<>();
+        if (partitions < 2) return splitPoints;
 
         try (Connection conn = connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            stmt.setInt(i++, partitions);
+            for (String type : INTEREST_BEARING_TYPES) stmt.setString(i++, type);
+            stmt.setDate(i, java.sql.Date.valueOf(interestDueCutoff(asOf)));
 
-            // Create a single TransactionDAO to pass to interest-bearing accounts
-            JDBCTransactionDAO transactionDAO = new JDBCTransactionDAO(conn);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) splitPoints.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error splitting interest-due accounts", e);
+        }
+        return splitPoints;
+    }
 
-            while (rs.next()) {
-                String accountNumber = rs.getString("accountNumber");
-                String branch = rs.getString("branch");
-                double balance = rs.getDouble("balance");
-                
-                String type = rs.getString("accountType")
-                        .trim()
-                        .toLowerCase()
-                        .replace("account", "");
-                int customerId = rs.getInt("customerId");
-
-                Customer customer = customerDAO.findCustomerById(customerId);
-                if (customer == null) {
-                    System.out.println("Skipping account " + accountNumber + ": customer not found.");
-                    continue;
-                }
+    private void streamAccounts(String baseSql, List<Object> params, String fromInclusive, String toExclusive,
+                                Consumer<Account> action) {
+        StringBuilder sql = new StringBuilder(baseSql);
+        boolean hasWhere = baseSql.contains(" WHERE ");
+        if (fromInclusive != null) {
+            sql.append(hasWhere ? " AND" : " WHERE").append(" accountNumber >= ?");
+            params.add(fromInclusive);
+            hasWhere = true;
+        }
+        if (toExclusive != null) {
+            sql.append(hasWhere ? " AND" : " WHERE").append(" accountNumber < ?");
+            params.add(toExclusive);
+        }
 
-                Account acc = null;
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
 
-                switch (type) {
-                    case "savings":
-                        acc = new SavingsAccount(branch, customer, transactionDAO);
-                        break;
-                    case "investment":
-                        InvestmentAccount invAcc = new InvestmentAccount(branch, customer, transactionDAO);
-                        invAcc.setBalance(balance);
-                        acc = invAcc;
-                        break;
-                    case "cheque":
-                        if (customer instanceof Individual) {
-                            acc = new ChequeAccount(branch, customer);
-                        } else {
-                            System.out.println("Skipping Cheque account " + accountNumber + " for non-individual customer");
-                        }
-                        break;
-                    default:
-                        System.out.println("Skipping unknown account type " + type + " for account " + accountNumber);
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+
+            // Server-side cursor: rows arrive in fetch-size batches instead of all at once
+            stmt.setFetchSize(DatabaseConnection.STREAM_FETCH_SIZE);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                // Create a single TransactionDAO to pass to interest-bearing accounts
+                JDBCTransactionDAO transactionDAO = new JDBCTransactionDAO();
+                // Customers shared by accounts in nearby chunks; cleared regularly to keep memory flat
+                Map<Integer, Customer> customers = new HashMap<>();
+                List<AccountRow> chunk = new ArrayList<>(CUSTOMER_FETCH_CHUNK);
+
+                while (rs.next()) {
+                    chunk.add(readRow(rs));
+                    if (chunk.size() == CUSTOMER_FETCH_CHUNK) {
+                        hydrate(chunk, customers, transactionDAO, action);
+                        chunk.clear();
+                        if (customers.size() > CUSTOMER_FETCH_CHUNK * 4) customers.clear();
+                    }
                 }
+                hydrate(chunk, customers, transactionDAO, action);
+            }
 
-                if (acc != null) {
-                    // set lastInterestDate for interest-bearing accounts
-                    if (acc instanceof InterestBearing interestAcc) {
-                        java.sql.Date sqlDate = rs.getDate("lastInterestDate");
-                        if (sqlDate != null) {
-                            interestAcc.setLastInterestDate(new java.util.Date(sqlDate.getTime()));
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching accounts", e);
+        }
+    }
+
+    @Override
+    public DashboardSnapshot loadDashboardSnapshot(int customerId, int recentCount) {
+        // Loaded first, so rows can be turned into accounts inside the transaction below
+        Customer customer = customerDAO.findCustomerById(customerId);
+        JDBCTransactionDAO transactionDAO = new JDBCTransactionDAO();
+
+        List<Account> accounts = new ArrayList<>();
+        double total = 0;
+        List<Transaction> recent;
+
+        try (Connection conn = connect()) {
+            // One read-only transaction: InnoDB serves every query below from the same snapshot
+            conn.setReadOnly(true);
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM account WHERE customerId = ?")) {
+                    stmt.setInt(1, customerId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Account acc = toAccount(readRow(rs), customer, transactionDAO);
+                            if (acc != null) accounts.add(acc);
                         }
                     }
+                }
 
-                    acc.setAccountNumber(accountNumber);
-                    acc.setBalance(balance);
-                    accounts.add(acc);
+                // The total and the activity cover only the accounts shown; toAccount skips some rows
+                List<String> accountNumbers = new ArrayList<>(accounts.size());
+                for (Account acc : accounts) {
+                    accountNumbers.add(acc.getAccountNumber());
+                    total += acc.getBalance();
                 }
-            }
+                recent = JDBCTransactionDAO.findRecentTransactions(conn, accountNumbers, recentCount);
 
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
-            throw new RuntimeException("Error fetching accounts", e);
+            throw new RuntimeException("Error loading dashboard for customer", e);
         }
 
-        return accounts;
+        return new DashboardSnapshot(accounts, total, recent);
     }
 
     @Override
     public List<Account> findAccountsByCustomer(int customerId) {
         List<Account> accounts = new ArrayList<>();
+        List<AccountRow> rows = new ArrayList<>();
         String sql = "SELECT * FROM account WHERE customerId = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, customerId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                String accountNumber = rs.getString("accountNumber");
-                String branch = rs.getString("branch");
-                double balance = rs.getDouble("balance");
-                String type = rs.getString("accountType").trim().toLowerCase().replace("account", "");
-                Date lastInterest = rs.getDate("lastInterestDate");
-
-                Customer customer = new JDBCCustomerDAO().findCustomerById(customerId);
-                if (customer == null) {
-                    System.out.println("Customer " + customerId + " not found. Skipping account " + accountNumber);
-                    continue;
-                }
-
-                Account acc = createAccountObject(type, branch, customer);
-                if (acc == null) {
-                    System.out.println("Unknown account type: " + type + " for account " + accountNumber);
-                    continue;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(readRow(rs));
                 }
-
-                acc.setAccountNumber(accountNumber);
-                acc.setBalance(balance);
-
-                if (acc instanceof InterestBearing interestAcc) {
-                    if (lastInterest != null) {
-                        interestAcc.setLastInterestDate(lastInterest);
-                    } else {
-                        interestAcc.setLastInterestDate(customer.getRegistrationDate());
-                    }
-                }
-
-                accounts.add(acc);
             }
 
         } catch (SQLException e) {
             throw new RuntimeException("Error finding accounts for customer", e);
         }
 
+        if (rows.isEmpty()) return accounts;
+
+        Customer customer = customerDAO.findCustomerById(customerId);
+        JDBCTransactionDAO transactionDAO = new JDBCTransactionDAO();
+        for (AccountRow row : rows) {
+            Account acc = toAccount(row, customer, transactionDAO);
+            if (acc != null) accounts.add(acc);
+        }
+
         return accounts;
     }
 
@@ -272,12 +432,15 @@ public class JDBCAccountDAO implements AccountDAO {
     public void updateAccount(Account account) {
         String sql;
 
+        // Compare-and-set on version: a row changed since it was read is left alone and reported
         if (account instanceof InterestBearing) {
-            sql = "UPDATE account SET balance = ?, lastInterestDate = ?, branch = ? WHERE accountNumber = ?";
+            sql = "UPDATE account SET balance = ?, lastInterestDate = ?, branch = ?, version = version + 1 "
+                    + "WHERE accountNumber = ? AND version = ?";
         } else {
-            sql = "UPDATE account SET balance = ?, branch = ? WHERE accountNumber = ?";
+            sql = "UPDATE account SET balance = ?, branch = ?, version = version + 1 WHERE accountNumber = ? AND version = ?";
         }
 
+        int updated;
         try (Connection conn = connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -287,16 +450,264 @@ public class JDBCAccountDAO implements AccountDAO {
                 stmt.setDate(2, new java.sql.Date(interestAcc.getLastInterestDate().getTime()));
                 stmt.setString(3, account.getBranch());
                 stmt.setString(4, account.getAccountNumber());
+                stmt.setLong(5, account.getVersion());
             } else {
                 stmt.setString(2, account.getBranch());
                 stmt.setString(3, account.getAccountNumber());
+                stmt.setLong(4, account.getVersion());
             }
 
-            stmt.executeUpdate();
+            updated = stmt.executeUpdate();
 
         } catch (SQLException e) {
             throw new RuntimeException("Error updating account", e);
         }
+
+        if (updated == 0) {
+            throw new OptimisticLockException(account.getAccountNumber(), account.getVersion());
+        }
+        account.setVersion(account.getVersion() + 1);
+    }
+
+    @Override
+    public double transfer(String fromAccount, String toAccount, double amount,
+                           String debitDescription, String creditDescription) {
+        if (fromAccount.equals(toAccount)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+
+        // Locking both rows in accountNumber order means two opposite transfers can never deadlock
+        String lockSql = "SELECT accountNumber, balance, accountType FROM account "
+                + "WHERE accountNumber IN (?, ?) ORDER BY accountNumber FOR UPDATE";
+        String updateSql = "UPDATE account SET balance = ?, version = version + 1 WHERE accountNumber = ?";
+
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false);
+            try {
+                Map<String, Double> balances = new HashMap<>();
+                String fromType = null;
+
+                try (PreparedStatement lock = conn.prepareStatement(lockSql)) {
+                    lock.setString(1, fromAccount);
+                    lock.setString(2, toAccount);
+                    try (ResultSet rs = lock.executeQuery()) {
+                        while (rs.next()) {
+                            String number = rs.getString("accountNumber");
+                            balances.put(number, rs.getDouble("balance"));
+                            if (number.equals(fromAccount)) fromType = rs.getString("accountType");
+                        }
+                    }
+                }
+
+                if (!balances.containsKey(fromAccount)) throw new IllegalArgumentException("Account not found: " + fromAccount);
+                if (!balances.containsKey(toAccount)) throw new IllegalArgumentException("Account not found: " + toAccount);
+                if (!isWithdrawableType(fromType)) {
+                    throw new UnsupportedOperationException("Withdrawals not allowed for this account type");
+                }
+                if (balances.get(fromAccount) < amount) {
+                    throw new IllegalArgumentException("Insufficient funds in account " + fromAccount);
+                }
+
+                double fromBalance = balances.get(fromAccount) - amount;
+                double toBalance = balances.get(toAccount) + amount;
+
+                try (PreparedStatement update = conn.prepareStatement(updateSql)) {
+                    update.setDouble(1, fromBalance);
+                    update.setString(2, fromAccount);
+                    update.addBatch();
+                    update.setDouble(1, toBalance);
+                    update.setString(2, toAccount);
+                    update.addBatch();
+                    update.executeBatch();
+                }
+
+                JDBCTransactionDAO.saveTransactions(conn, List.of(
+                        new Transaction(fromAccount, "WITHDRAWAL", amount, fromBalance, debitDescription),
+                        new Transaction(toAccount, "DEPOSIT", amount, toBalance, creditDescription)
+                ));
+
+                conn.commit();
+                return fromBalance;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error transferring funds", e);
+        }
+    }
+
+    // Cheque and investment accounts accept withdrawals (see Withdrawable); savings accounts do not
+    private static boolean isWithdrawableType(String accountType) {
+        return accountType != null && WITHDRAWABLE_TYPES.contains(accountType.trim().toLowerCase());
+    }
+
+    @Override
+    public double applyBalanceDelta(String accountNumber, double delta, String transactionType, String description) {
+        // The balance changes inside MySQL, so concurrent deltas can never overwrite each other;
+        // a withdrawal only matches when the account allows it and has the funds
+        String updateSql = delta < 0
+                ? "UPDATE account SET balance = balance + ?, version = version + 1 "
+                        + "WHERE accountNumber = ? AND balance >= ? AND accountType IN ("
+                        + SqlInList.placeholders(WITHDRAWABLE_TYPES.size()) + ")"
+                : "UPDATE account SET balance = balance + ?, version = version + 1 WHERE accountNumber = ?";
+        String balanceSql = "SELECT balance, accountType FROM account WHERE accountNumber = ?";
+
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false);
+            try {
+                int updated;
+                try (PreparedStatement update = conn.prepareStatement(updateSql)) {
+                    int i = 1;
+                    update.setDouble(i++, delta);
+                    update.setString(i++, accountNumber);
+                    if (delta < 0) {
+                        update.setDouble(i++, -delta);
+                        for (String type : WITHDRAWABLE_TYPES) update.setString(i++, type);
+                    }
+                    updated = update.executeUpdate();
+                }
+
+                double newBalance;
+                try (PreparedStatement select = conn.prepareStatement(balanceSql)) {
+                    select.setString(1, accountNumber);
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (!rs.next()) throw new IllegalArgumentException("Account not found: " + accountNumber);
+                        if (updated == 0) {
+                            if (!isWithdrawableType(rs.getString("accountType"))) {
+                                throw new UnsupportedOperationException("Withdrawals not allowed for this account type");
+                            }
+                            throw new IllegalArgumentException("Insufficient funds in account " + accountNumber);
+                        }
+                        newBalance = rs.getDouble("balance");
+                    }
+                }
+
+                JDBCTransactionDAO.saveTransactions(conn, List.of(
+                        new Transaction(accountNumber, transactionType, Math.abs(delta), newBalance, description)));
+
+                conn.commit();
+                return newBalance;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error applying balance change", e);
+        }
+    }
+
+    @Override
+    public int postInterestInDatabase(LocalDate asOf) {
+        // Same arithmetic and month rule as accrueInterestIfDue: balance * rate * whole months elapsed.
+        // TIMESTAMPDIFF(MONTH, ...) drops a partial month exactly like ChronoUnit.MONTHS.between.
+        String rate = "CASE WHEN accountType IN (" + SqlInList.placeholders(SAVINGS_TYPES.size()) + ") THEN ? ELSE ? END";
+        String months = "TIMESTAMPDIFF(MONTH, lastInterestDate, ?)";
+        String due = "accountType IN (" + SqlInList.placeholders(INTEREST_BEARING_TYPES.size()) + ") AND lastInterestDate <= ?";
+
+        // Ids come from a block reserved up front; row n gets TransactionIdGenerator.idAt(base, n)
+        String countSql = "SELECT COUNT(*) FROM account WHERE " + due + " FOR UPDATE";
+        String insertSql = "INSERT INTO transaction (transactionId, accountNumber, transactionType, amount, balance, description) "
+                + "SELECT ? + (rn DIV " + (TransactionIdGenerator.MAX_SEQUENCE + 1) + ") * " + (1L << TransactionIdGenerator.TIMESTAMP_SHIFT)
+                + " + rn MOD " + (TransactionIdGenerator.MAX_SEQUENCE + 1) + ", "
+                + "accountNumber, 'INTEREST', interest, balance + interest, 'Monthly Interest' "
+                + "FROM (SELECT accountNumber, balance, balance * " + rate + " * " + months + " AS interest, "
+                + "ROW_NUMBER() OVER (ORDER BY accountNumber) - 1 AS rn "
+                + "FROM account WHERE " + due + ") dueAccounts";
+        String updateSql = "UPDATE account SET balance = balance + balance * " + rate + " * " + months
+                + ", lastInterestDate = ?, version = version + 1 WHERE " + due;
+
+        java.sql.Date today = java.sql.Date.valueOf(asOf);
+        java.sql.Date cutoff = java.sql.Date.valueOf(interestDueCutoff(asOf));
+
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement count = conn.prepareStatement(countSql);
+                 PreparedStatement insert = conn.prepareStatement(insertSql);
+                 PreparedStatement update = conn.prepareStatement(updateSql)) {
+
+                // Locks the due rows, so the set cannot grow past the reserved id block
+                int i = 1;
+                for (String type : INTEREST_BEARING_TYPES) count.setString(i++, type);
+                count.setDate(i, cutoff);
+                long dueCount;
+                try (ResultSet rs = count.executeQuery()) {
+                    rs.next();
+                    dueCount = rs.getLong(1);
+                }
+                if (dueCount == 0) {
+                    conn.commit();
+                    return 0;
+                }
+
+                // The transaction rows are written first, from the balances before the update
+                i = 1;
+                insert.setLong(i++, TransactionIdGenerator.shared().reserveBlock(dueCount));
+                i = bindInterestRate(insert, i);
+                insert.setDate(i++, today);
+                for (String type : INTEREST_BEARING_TYPES) insert.setString(i++, type);
+                insert.setDate(i, cutoff);
+                insert.executeUpdate();
+
+                i = bindInterestRate(update, 1);
+                update.setDate(i++, today);
+                update.setDate(i++, today);
+                for (String type : INTEREST_BEARING_TYPES) update.setString(i++, type);
+                update.setDate(i, cutoff);
+                int posted = update.executeUpdate();
+
+                conn.commit();
+                return posted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error posting interest in database", e);
+        }
+    }
+
+    // Interest is due once lastInterestDate is on or before this: at least one whole month has passed,
+    // the same rule as accrueInterestIfDue
+    static LocalDate interestDueCutoff(LocalDate asOf) {
+        return asOf.minusMonths(1);
+    }
+
+    // Binds the rate CASE of postInterestInDatabase from index i; returns the next free index
+    static int bindInterestRate(PreparedStatement stmt, int i) throws SQLException {
+        for (String type : SAVINGS_TYPES) stmt.setString(i++, type);
+        stmt.setDouble(i++, SavingsAccount.INTEREST_RATE);
+        stmt.setDouble(i++, InvestmentAccount.INTEREST_RATE);
+        return i;
+    }
+
+    // Writes balance and lastInterestDate for interest postings as one batch on the caller's connection.
+    // Each row is a compare-and-set on version; returns the accounts that changed underneath us.
+    public static List<Account> updateInterestBalances(Connection conn, List<Account> accounts) throws SQLException {
+        List<Account> conflicts = new ArrayList<>();
+        if (accounts.isEmpty()) return conflicts;
+
+        String sql = "UPDATE account SET balance = ?, lastInterestDate = ?, version = version + 1 "
+                + "WHERE accountNumber = ? AND version = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Account account : accounts) {
+                stmt.setDouble(1, account.getBalance());
+                stmt.setDate(2, new java.sql.Date(((InterestBearing) account).getLastInterestDate().getTime()));
+                stmt.setString(3, account.getAccountNumber());
+                stmt.setLong(4, account.getVersion());
+                stmt.addBatch();
+            }
+
+            int[] counts = stmt.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    conflicts.add(accounts.get(i));
+                } else {
+                    accounts.get(i).setVersion(accounts.get(i).getVersion() + 1);
+                }
+            }
+        }
+        return conflicts;
     }
 
     @Override
@@ -334,38 +745,22 @@ public class JDBCAccountDAO implements AccountDAO {
     @Override
     public List<Account> getRecentlyCreatedAccounts() {
         List<Account> accounts = new ArrayList<>();
+        List<AccountRow> rows = new ArrayList<>();
         String sql = "SELECT * FROM account ORDER BY createdAt DESC LIMIT 10";
 
         try (Connection conn = connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            ResultSet rs = stmt.executeQuery();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                String number = rs.getString("accountNumber");
-                String branch = rs.getString("branch");
-                double balance = rs.getDouble("balance");
-                String type = rs.getString("accountType");
-                int customerId = rs.getInt("customerId");
-                Date lastInterest = rs.getDate("lastInterestDate");
-
-                Customer customer = new JDBCCustomerDAO().findCustomerById(customerId);
-
-                Account acc = createAccountObject(type, branch, customer);
-                acc.setAccountNumber(number);
-                acc.setBalance(balance);
-
-                if (acc instanceof InterestBearing interestAcc) {
-                    interestAcc.setLastInterestDate(lastInterest);
-                }
-
-                accounts.add(acc);
+                rows.add(readRow(rs));
             }
 
         } catch (SQLException e) {
             throw new RuntimeException("Error loading recent accounts", e);
         }
 
+        hydrate(rows, new HashMap<>(), new JDBCTransactionDAO(), accounts::add);
         return accounts;
     }
 
@@ -8,11 +8,39 @@ import com.example.bankaccount.Company;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class JDBCCustomerDAO implements CustomerDAO {
 
+    // Shared by every DAO instance, so each customer is loaded and held once per JVM.
+    // Tunable with -Dbanking.customerCache.maxEntries and -Dbanking.customerCache.ttlMs
+    private static final CustomerIdentityMap IDENTITY_MAP = new CustomerIdentityMap(
+            Integer.getInteger("banking.customerCache.maxEntries", 5000),
+            Long.getLong("banking.customerCache.ttlMs", 60_000L));
+
+    public static CustomerIdentityMap.Stats getIdentityMapStats() {
+        return IDENTITY_MAP.getStats();
+    }
+
+    // Customer, user and whichever of individual/company applies, in one row per customer
+    private static final String CUSTOMER_SELECT = """
+            SELECT c.customerId, c.userId, c.address, c.email, c.phoneNumber, c.customerType,
+                   u.username, u.password,
+                   i.customerId AS individualId, i.idNumber, i.firstName, i.surname, i.dateOfBirth, i.gender,
+                   i.nextOfKinName, i.nextOfKinRelationship, i.nextOfKinGender, i.nextOfKinPhoneNumber,
+                   i.sourceOfIncome AS individualSourceOfIncome, i.sourceName, i.sourceAddress, i.monthlyIncome,
+                   co.customerId AS companyId, co.companyName, co.registrationNumber, co.businessType,
+                   co.contactPersonName, co.sourceOfIncome AS companySourceOfIncome, co.annualRevenue
+            FROM customer c
+            JOIN user u ON c.userId = u.userId
+            LEFT JOIN individual i ON i.customerId = c.customerId
+            LEFT JOIN company co ON co.customerId = c.customerId
+            """;
+
     @Override
     public void saveCustomer(Customer customer) {
         String insertUserSql = "INSERT INTO user (username, password, userType) VALUES (?, ?, ?)";
@@ -72,6 +100,9 @@ public class JDBCCustomerDAO implements CustomerDAO {
 
         } catch (SQLException e) {
             throw new RuntimeException("Error saving customer", e);
+        } finally {
+            // A new id is never cached, but a load racing with the insert must not cache a half-written row
+            if (customer.getCustomerId() > 0) IDENTITY_MAP.invalidate(customer.getCustomerId());
         }
     }
 
@@ -130,115 +161,133 @@ public class JDBCCustomerDAO implements CustomerDAO {
 
     @Override
     public Customer findCustomerById(int customerId) {
-        String baseSql = "SELECT c.customerId, c.userId, c.address, c.email, c.phoneNumber, c.customerType, u.username, u.password " +
-                "FROM customer c JOIN user u ON c.userId = u.userId WHERE c.customerId = ?";
+        Customer cached = IDENTITY_MAP.get(customerId);
+        if (cached != null) return cached;
+
+        long generation = IDENTITY_MAP.generation();
+        String sql = CUSTOMER_SELECT + "WHERE c.customerId = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(baseSql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, customerId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (!rs.next()) return null;
+                Customer customer = mapCustomer(rs);
+                return customer == null ? null : IDENTITY_MAP.register(customer, generation);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding customer by id", e);
+        }
+    }
 
-                int userId = rs.getInt("userId");
-                String address = rs.getString("address");
-                String email = rs.getString("email");
-                String phone = rs.getString("phoneNumber");
-                String customerType = rs.getString("customerType");
-                String username = rs.getString("username");
-                String password = rs.getString("password");
-
-                if ("INDIVIDUAL".equalsIgnoreCase(customerType)) {
-                    // load individual row
-                    String indSql = "SELECT * FROM individual WHERE customerId = ?";
-                    try (PreparedStatement indStmt = conn.prepareStatement(indSql)) {
-                        indStmt.setInt(1, customerId);
-                        try (ResultSet indRs = indStmt.executeQuery()) {
-                            if (!indRs.next()) throw new SQLException("Individual row missing for customerId " + customerId);
-                            String idNumber = indRs.getString("idNumber");
-                            String firstName = indRs.getString("firstName");
-                            String surname = indRs.getString("surname");
-
-                            java.sql.Date sqlDob = indRs.getDate("dateOfBirth");
-                            java.util.Date dob = (sqlDob != null) ? new java.util.Date(sqlDob.getTime()) : null;
-                            String gender = indRs.getString("gender");
-
-                            String nokName = indRs.getString("nextOfKinName");
-                            String nokRel = indRs.getString("nextOfKinRelationship");
-                            String nokGender = indRs.getString("nextOfKinGender");
-                            String nokPhone = indRs.getString("nextOfKinPhoneNumber");
-
-                            String sourceOfIncome = indRs.getString("sourceOfIncome");
-                            String sourceName = indRs.getString("sourceName");
-                            String sourceAddress = indRs.getString("sourceAddress");
-                            double monthlyIncome = indRs.getDouble("monthlyIncome");
-
-
-                            Individual ind = new Individual(
-                                    username,
-                                    password,
-                                    address,
-                                    email,
-                                    firstName,
-                                    surname,
-                                    idNumber,
-                                    dob,
-                                    gender,
-                                    phone,
-                                    nokName,
-                                    nokRel,
-                                    nokGender,
-                                    nokPhone,
-                                    sourceOfIncome,
-                                    sourceName,
-                                    sourceAddress,
-                                    monthlyIncome
-                            );
-
-                            ind.setCustomerId(customerId);
-                            ind.setUserId(userId);
-                            return ind;
-                        }
+    @Override
+    public Map<Integer, Customer> findCustomersByIds(Collection<Integer> ids) {
+        Map<Integer, Customer> customers = new HashMap<>();
+        if (ids.isEmpty()) return customers;
+
+        // Serve what is already mapped; only the rest goes to the database
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            Customer cached = IDENTITY_MAP.get(id);
+            if (cached != null) customers.put(id, cached);
+            else missing.add(id);
+        }
+        if (missing.isEmpty()) return customers;
+
+        long generation = IDENTITY_MAP.generation();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (List<Integer> chunk : SqlInList.chunks(missing)) {
+                int size = SqlInList.paddedSize(chunk.size());
+                String sql = CUSTOMER_SELECT + "WHERE c.customerId IN (" + SqlInList.placeholders(size) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < size; i++) {
+                        // Pad with the last id so the SQL text stays one of a few cached shapes
+                        stmt.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
                     }
-                } else if ("COMPANY".equalsIgnoreCase(customerType)) {
-                    String compSql = "SELECT * FROM company WHERE customerId = ?";
-                    try (PreparedStatement compStmt = conn.prepareStatement(compSql)) {
-                        compStmt.setInt(1, customerId);
-                        try (ResultSet compRs = compStmt.executeQuery()) {
-                            if (!compRs.next()) throw new SQLException("Company row missing for customerId " + customerId);
-
-                            String companyName = compRs.getString("companyName");
-                            String registrationNumber = compRs.getString("registrationNumber");
-                            String businessType = compRs.getString("businessType");
-                            String contactPerson = compRs.getString("contactPersonName");
-                            String sourceOfIncome = compRs.getString("sourceOfIncome");
-                            double annualRevenue = compRs.getDouble("annualRevenue");
-
-                            Company company = new Company(
-                                    username,
-                                    password,
-                                    address,
-                                    email,
-                                    phone,
-                                    "COMPANY",
-                                    companyName,
-                                    registrationNumber,
-                                    businessType,
-                                    contactPerson,
-                                    sourceOfIncome,
-                                    annualRevenue
-                            );
-
-                            company.setCustomerId(customerId);
-                            company.setUserId(userId);
-                            return company;
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Customer customer = mapCustomer(rs);
+                            if (customer != null) {
+                                customers.put(customer.getCustomerId(), IDENTITY_MAP.register(customer, generation));
+                            }
                         }
                     }
-                } else {
-                    return null;
                 }
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Error finding customer by id", e);
+            throw new RuntimeException("Error finding customers by id", e);
+        }
+
+        return customers;
+    }
+
+    // Builds an Individual or Company from a CUSTOMER_SELECT row; null for unknown customer types
+    private Customer mapCustomer(ResultSet rs) throws SQLException {
+        int customerId = rs.getInt("customerId");
+        int userId = rs.getInt("userId");
+        String address = rs.getString("address");
+        String email = rs.getString("email");
+        String phone = rs.getString("phoneNumber");
+        String customerType = rs.getString("customerType");
+        String username = rs.getString("username");
+        String password = rs.getString("password");
+
+        if ("INDIVIDUAL".equalsIgnoreCase(customerType)) {
+            rs.getInt("individualId");
+            if (rs.wasNull()) throw new SQLException("Individual row missing for customerId " + customerId);
+
+            java.sql.Date sqlDob = rs.getDate("dateOfBirth");
+            java.util.Date dob = (sqlDob != null) ? new java.util.Date(sqlDob.getTime()) : null;
+
+            Individual ind = new Individual(
+                    username,
+                    password,
+                    address,
+                    email,
+                    rs.getString("firstName"),
+                    rs.getString("surname"),
+                    rs.getString("idNumber"),
+                    dob,
+                    rs.getString("gender"),
+                    phone,
+                    rs.getString("nextOfKinName"),
+                    rs.getString("nextOfKinRelationship"),
+                    rs.getString("nextOfKinGender"),
+                    rs.getString("nextOfKinPhoneNumber"),
+                    rs.getString("individualSourceOfIncome"),
+                    rs.getString("sourceName"),
+                    rs.getString("sourceAddress"),
+                    rs.getDouble("monthlyIncome")
+            );
+
+            ind.setCustomerId(customerId);
+            ind.setUserId(userId);
+            return ind;
+        } else if ("COMPANY".equalsIgnoreCase(customerType)) {
+            rs.getInt("companyId");
+            if (rs.wasNull()) throw new SQLException("Company row missing for customerId " + customerId);
+
+            Company company = new Company(
+                    username,
+                    password,
+                    address,
+                    email,
+                    phone,
+                    "COMPANY",
+                    rs.getString("companyName"),
+                    rs.getString("registrationNumber"),
+                    rs.getString("businessType"),
+                    rs.getString("contactPersonName"),
+                    rs.getString("companySourceOfIncome"),
+                    rs.getDouble("annualRevenue")
+            );
+
+            company.setCustomerId(customerId);
+            company.setUserId(userId);
+            return company;
+        } else {
+            return null;
         }
     }
 
@@ -267,6 +316,8 @@ public class JDBCCustomerDAO implements CustomerDAO {
 
         } catch (SQLException e) {
             throw new RuntimeException("Error updating password for username: " + username, e);
+        } finally {
+            IDENTITY_MAP.invalidateUsername(username);
         }
     }
 
@@ -274,15 +325,16 @@ public class JDBCCustomerDAO implements CustomerDAO {
     @Override
     public List<Customer> findAllCustomers() {
         List<Customer> list = new ArrayList<>();
-        String sql = "SELECT c.customerId FROM customer c ORDER BY c.customerId DESC";
+        String sql = CUSTOMER_SELECT + "ORDER BY c.customerId DESC";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
+            // One joined result set, mapped row by row instead of a findCustomerById per customer
             while (rs.next()) {
-                int cid = rs.getInt("customerId");
-                Customer c = findCustomerById(cid); // reuse single-ID loader
-                if (c != null) list.add(c);
+                // Full scans reuse mapped instances but don't flood the map with the whole table
+                Customer c = mapCustomer(rs);
+                if (c != null) list.add(IDENTITY_MAP.canonical(c));
             }
             return list;
         } catch (SQLException e) {
@@ -347,6 +399,8 @@ public class JDBCCustomerDAO implements CustomerDAO {
 
         } catch (SQLException e) {
             throw new RuntimeException("Error updating customer", e);
+        } finally {
+            IDENTITY_MAP.invalidate(customer.getCustomerId());
         }
     }
 
@@ -359,6 +413,8 @@ public class JDBCCustomerDAO implements CustomerDAO {
             stmt.executeUpdate();
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting customer", e);
+        } finally {
+            IDENTITY_MAP.invalidate(id);
         }
     }
 
@@ -379,40 +435,7 @@ public class JDBCCustomerDAO implements CustomerDAO {
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-
-                String idNumber = rs.getString("idNumber");
-                int customerId = rs.getInt("customerId");
-                String firstName = rs.getString("firstName");
-                String surname = rs.getString("surname");
-                java.sql.Date sqlDob = rs.getDate("dateOfBirth");
-                java.util.Date dateOfBirth =
-                        sqlDob != null ? new java.util.Date(sqlDob.getTime()) : null;
-
-                String gender = rs.getString("gender");
-
-                String nextOfKinName = rs.getString("nextOfKinName");
-                String nextOfKinRelationship = rs.getString("nextOfKinRelationship");
-                String nextOfKinGender = rs.getString("nextOfKinGender");
-                String nextOfKinPhoneNumber = rs.getString("nextOfKinPhoneNumber");
-
-                String sourceOfIncome = rs.getString("sourceOfIncome");
-                String sourceName = rs.getString("sourceName");
-                String sourceAddress = rs.getString("sourceAddress");
-                double monthlyIncome = rs.getDouble("monthlyIncome");
-
-                Individual individual = new Individual(
-                        firstName, surname, idNumber, dateOfBirth, gender,
-                        nextOfKinName, nextOfKinRelationship, nextOfKinGender, nextOfKinPhoneNumber,
-                        sourceOfIncome, sourceName, sourceAddress, monthlyIncome
-                );
-
-
-                individual.setCustomerId(customerId);
-                individual.setAddress(rs.getString("address"));
-                individual.setEmail(rs.getString("email"));
-                individual.setPhoneNumber(rs.getString("phoneNumber"));
-
-                individuals.add(individual);
+                individuals.add(mapIndividualRow(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -440,27 +463,7 @@ public class JDBCCustomerDAO implements CustomerDAO {
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                Company company = new Company(
-                        null, // username
-                        null, // password
-                        rs.getString("address"),
-                        rs.getString("email"),
-                        rs.getString("phoneNumber"),
-                        "COMPANY",
-                        rs.getString("companyName"),
-                        rs.getString("registrationNumber"),
-                        rs.getString("businessType"),
-                        rs.getString("contactPersonName"),
-                        rs.getString("sourceOfIncome"),
-                        rs.getDouble("annualRevenue")
-                );
-
-                company.setCustomerId(rs.getInt("customerId"));
-                company.setAddress(rs.getString("address"));
-                company.setEmail(rs.getString("email"));
-                company.setPhoneNumber(rs.getString("phoneNumber"));
-
-                companies.add(company);
+                companies.add(mapCompanyRow(rs));
             }
 
         } catch (SQLException e) {
@@ -472,6 +475,161 @@ public class JDBCCustomerDAO implements CustomerDAO {
     }
 
 
+    // Sortable columns for the teller paging queries. Only these keys reach the SQL, so the sort
+    // column can never be injected; each is paired with customerId to make the keyset unique
+    private static final Map<String, String> INDIVIDUAL_SORT_COLUMNS = Map.of(
+            "firstName", "i.firstName",
+            "surname", "i.surname",
+            "idNumber", "i.idNumber");
+    private static final Map<String, String> COMPANY_SORT_COLUMNS = Map.of(
+            "companyName", "cc.companyName",
+            "registrationNumber", "cc.registrationNumber");
+
+    private static final String INDIVIDUAL_PAGE_SELECT = "SELECT c.customerId, c.address, c.email, c.phoneNumber, " +
+            "i.idNumber, i.firstName, i.surname, i.dateOfBirth, i.gender, " +
+            "i.nextOfKinName, i.nextOfKinRelationship, i.nextOfKinGender, i.nextOfKinPhoneNumber, " +
+            "i.sourceOfIncome, i.sourceName, i.sourceAddress, i.monthlyIncome " +
+            "FROM individual i JOIN customer c ON c.customerId = i.customerId " +
+            "WHERE c.customerType = 'INDIVIDUAL'";
+
+    private static final String COMPANY_PAGE_SELECT = "SELECT c.customerId, c.address, c.email, c.phoneNumber, " +
+            "cc.companyName, cc.registrationNumber, cc.businessType, " +
+            "cc.contactPersonName, cc.sourceOfIncome, cc.annualRevenue " +
+            "FROM company cc JOIN customer c ON c.customerId = cc.customerId " +
+            "WHERE c.customerType = 'COMPANY'";
+
+    @Override
+    public List<Individual> findIndividualsPage(String sortColumn, boolean ascending, String filter,
+                                                Individual after, int limit) {
+        String sortExpr = sortExpression(INDIVIDUAL_SORT_COLUMNS, sortColumn);
+        String afterValue = after == null ? null : switch (sortColumn) {
+            case "firstName" -> after.getFirstName();
+            case "surname" -> after.getSurname();
+            default -> after.getIdNumber();
+        };
+        String filterSql = "(i.firstName LIKE ? OR i.surname LIKE ? OR i.idNumber LIKE ?)";
+
+        return findPage(INDIVIDUAL_PAGE_SELECT, sortExpr, ascending, filterSql, 3, filter,
+                after == null ? null : after.getCustomerId(), afterValue, limit, JDBCCustomerDAO::mapIndividualRow);
+    }
+
+    @Override
+    public List<Company> findCompaniesPage(String sortColumn, boolean ascending, String filter,
+                                           Company after, int limit) {
+        String sortExpr = sortExpression(COMPANY_SORT_COLUMNS, sortColumn);
+        String afterValue = after == null ? null : switch (sortColumn) {
+            case "companyName" -> after.getCompanyName();
+            default -> after.getRegistrationNumber();
+        };
+        String filterSql = "(cc.companyName LIKE ? OR cc.registrationNumber LIKE ?)";
+
+        return findPage(COMPANY_PAGE_SELECT, sortExpr, ascending, filterSql, 2, filter,
+                after == null ? null : after.getCustomerId(), afterValue, limit, JDBCCustomerDAO::mapCompanyRow);
+    }
+
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private static String sortExpression(Map<String, String> columns, String sortColumn) {
+        String expr = columns.get(sortColumn);
+        if (expr == null) throw new IllegalArgumentException("Cannot sort by " + sortColumn);
+        return expr;
+    }
+
+    // One keyset page: rows strictly after (afterValue, afterId) in the requested order, optionally
+    // restricted to rows where one of the filter columns starts with filter
+    private <T> List<T> findPage(String select, String sortExpr, boolean ascending,
+                                 String filterSql, int filterParams, String filter,
+                                 Integer afterId, String afterValue, int limit, RowMapper<T> mapper) {
+        if (limit < 1) throw new IllegalArgumentException("Limit must be positive");
+
+        boolean filtered = filter != null && !filter.isBlank();
+        String cmp = ascending ? ">" : "<";
+        String dir = ascending ? "ASC" : "DESC";
+
+        StringBuilder sql = new StringBuilder(select);
+        if (filtered) sql.append(" AND ").append(filterSql);
+        if (afterId != null) {
+            sql.append(" AND (").append(sortExpr).append(' ').append(cmp).append(" ? OR (")
+               .append(sortExpr).append(" = ? AND c.customerId ").append(cmp).append(" ?))");
+        }
+        sql.append(" ORDER BY ").append(sortExpr).append(' ').append(dir)
+           .append(", c.customerId ").append(dir).append(" LIMIT ?");
+
+        List<T> rows = new ArrayList<>(limit);
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int i = 1;
+            if (filtered) {
+                String pattern = escapeLike(filter.trim()) + "%";
+                for (int f = 0; f < filterParams; f++) stmt.setString(i++, pattern);
+            }
+            if (afterId != null) {
+                stmt.setString(i++, afterValue);
+                stmt.setString(i++, afterValue);
+                stmt.setInt(i++, afterId);
+            }
+            stmt.setInt(i, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading customer page", e);
+        }
+        return rows;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static Individual mapIndividualRow(ResultSet rs) throws SQLException {
+        java.sql.Date sqlDob = rs.getDate("dateOfBirth");
+        java.util.Date dateOfBirth = sqlDob != null ? new java.util.Date(sqlDob.getTime()) : null;
+
+        Individual individual = new Individual(
+                rs.getString("firstName"), rs.getString("surname"), rs.getString("idNumber"), dateOfBirth,
+                rs.getString("gender"),
+                rs.getString("nextOfKinName"), rs.getString("nextOfKinRelationship"),
+                rs.getString("nextOfKinGender"), rs.getString("nextOfKinPhoneNumber"),
+                rs.getString("sourceOfIncome"), rs.getString("sourceName"), rs.getString("sourceAddress"),
+                rs.getDouble("monthlyIncome")
+        );
+
+        individual.setCustomerId(rs.getInt("customerId"));
+        individual.setAddress(rs.getString("address"));
+        individual.setEmail(rs.getString("email"));
+        individual.setPhoneNumber(rs.getString("phoneNumber"));
+        return individual;
+    }
+
+    private static Company mapCompanyRow(ResultSet rs) throws SQLException {
+        Company company = new Company(
+                null, // username
+                null, // password
+                rs.getString("address"),
+                rs.getString("email"),
+                rs.getString("phoneNumber"),
+                "COMPANY",
+                rs.getString("companyName"),
+                rs.getString("registrationNumber"),
+                rs.getString("businessType"),
+                rs.getString("contactPersonName"),
+                rs.getString("sourceOfIncome"),
+                rs.getDouble("annualRevenue")
+        );
+
+        company.setCustomerId(rs.getInt("customerId"));
+        company.setAddress(rs.getString("address"));
+        company.setEmail(rs.getString("email"));
+        company.setPhoneNumber(rs.getString("phoneNumber"));
+        return company;
+    }
+
     @Override
     public boolean customerExists(int id) {
         String sql = "SELECT 1 FROM customer WHERE customerId = ?";
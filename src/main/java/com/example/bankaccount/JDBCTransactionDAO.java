@@ -4,44 +4,180 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 public class JDBCTransactionDAO implements com.example.bankaccount.TransactionDAO {
-    private Connection connection;
 
-    public JDBCTransactionDAO(Connection connection) {
-        this.connection = connection;
+    // Every call borrows its own pooled connection, so one DAO can be shared freely
+    public JDBCTransactionDAO() {
     }
 
+    // Ids are assigned client-side by TransactionIdGenerator, so inserts never wait for generated keys
+    private static final String INSERT_SQL = "INSERT INTO transaction (transactionId, accountNumber, transactionType, amount, balance, description) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Standalone inserts from all DAOs share one group-commit writer.
+    // Tunable with -Dbanking.journal.maxBatch and -Dbanking.journal.maxDelayMicros
+    private static final TransactionJournal JOURNAL = new TransactionJournal(
+            Integer.getInteger("banking.journal.maxBatch", 256),
+            Long.getLong("banking.journal.maxDelayMicros", 500));
+
+    // Blocks until the transaction has been committed by the journal
     @Override
     public void saveTransaction(Transaction transaction) throws SQLException {
-        String sql = "INSERT INTO transaction (accountNumber, transactionType, amount, balance, description) " +
-                "VALUES (?, ?, ?, ?, ?)";
+        try {
+            saveTransactionAsync(transaction).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException sqlException) throw sqlException;
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw e;
+        }
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    @Override
+    public CompletableFuture<Transaction> saveTransactionAsync(Transaction transaction) {
+        return JOURNAL.append(transaction);
+    }
+
+    public static TransactionJournal getJournal() {
+        return JOURNAL;
+    }
+
+    // Inserts all transactions with one batch on the caller's connection; the caller owns commit/rollback
+    public static void saveTransactions(Connection conn, List<Transaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) return;
+
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+            for (Transaction transaction : transactions) {
+                bindInsert(stmt, transaction);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
 
-            stmt.setString(1, transaction.getAccountNumber());
-            stmt.setString(2, transaction.getTransactionType());
-            stmt.setDouble(3, transaction.getAmount());
-            stmt.setDouble(4, transaction.getBalance());
-            stmt.setString(5, transaction.getDescription());
+    // The newest limit transactions across the given accounts, newest first, on the caller's connection.
+    // One UNION ALL of per-account index seeks, each capped at limit rows, then a final sort of at most
+    // accounts * limit rows.
+    public static List<Transaction> findRecentTransactions(Connection conn, List<String> accountNumbers, int limit) throws SQLException {
+        List<Transaction> transactions = new ArrayList<>(limit);
+        if (accountNumbers.isEmpty() || limit < 1) return transactions;
 
-            stmt.executeUpdate();
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < accountNumbers.size(); i++) {
+            if (i > 0) sql.append(" UNION ALL ");
+            sql.append("(SELECT * FROM transaction WHERE accountNumber = ? ")
+               .append("ORDER BY transactionDate DESC, transactionId DESC LIMIT ?)");
+        }
+        sql.append(" ORDER BY transactionDate DESC, transactionId DESC LIMIT ?");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int i = 1;
+            for (String accountNumber : accountNumbers) {
+                stmt.setString(i++, accountNumber);
+                stmt.setInt(i++, limit);
+            }
+            stmt.setInt(i, limit);
 
-            ResultSet rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                transaction.setTransactionId(rs.getInt(1));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapTransaction(rs));
+                }
             }
         }
+        return transactions;
     }
 
+    private static void bindInsert(PreparedStatement stmt, Transaction transaction) throws SQLException {
+        stmt.setLong(1, transaction.getTransactionId());
+        stmt.setString(2, transaction.getAccountNumber());
+        stmt.setString(3, transaction.getTransactionType());
+        stmt.setDouble(4, transaction.getAmount());
+        stmt.setDouble(5, transaction.getBalance());
+        stmt.setString(6, transaction.getDescription());
+    }
 
     @Override
     public List<Transaction> findTransactionsByAccount(String accountNumber) throws SQLException {
-        String sql = "SELECT * FROM transaction WHERE accountNumber = ? ORDER BY transactionDate DESC";
+        String sql = "SELECT * FROM transaction WHERE accountNumber = ? ORDER BY transactionDate DESC, transactionId DESC";
         return fetchTransactions(accountNumber, sql);
     }
 
+    // Newest-first page of up to limit rows, starting after `before` (the last row of the previous page,
+    // or null for the first page). Seeks on idx_transaction_account_date, so the cost is the page size
+    // however long the history is.
+    @Override
+    public List<Transaction> findTransactions(String accountNumber, Transaction before, int limit) throws SQLException {
+        if (limit < 1) throw new IllegalArgumentException("Limit must be positive");
+
+        String sql = before == null
+                ? "SELECT * FROM transaction WHERE accountNumber = ? "
+                  + "ORDER BY transactionDate DESC, transactionId DESC LIMIT ?"
+                : "SELECT * FROM transaction WHERE accountNumber = ? "
+                  + "AND (transactionDate < ? OR (transactionDate = ? AND transactionId < ?)) "
+                  + "ORDER BY transactionDate DESC, transactionId DESC LIMIT ?";
+
+        List<Transaction> transactions = new ArrayList<>(limit);
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            stmt.setString(i++, accountNumber);
+            if (before != null) {
+                Timestamp date = new Timestamp(before.getTransactionDate().getTime());
+                stmt.setTimestamp(i++, date);
+                stmt.setTimestamp(i++, date);
+                stmt.setLong(i++, before.getTransactionId());
+            }
+            stmt.setInt(i, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapTransaction(rs));
+                }
+            }
+        }
+        return transactions;
+    }
+
+    // Everything in [from, to), newest first, read through a server-side cursor and handed to action
+    // row by row, so a long range is never held in memory
+    @Override
+    public void forEachTransactionBetween(String accountNumber, Date from, Date to, Consumer<Transaction> action) throws SQLException {
+        String sql = "SELECT * FROM transaction WHERE accountNumber = ? AND transactionDate >= ? AND transactionDate < ? "
+                + "ORDER BY transactionDate DESC, transactionId DESC";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setFetchSize(DatabaseConnection.STREAM_FETCH_SIZE);
+            stmt.setString(1, accountNumber);
+            stmt.setTimestamp(2, new Timestamp(from.getTime()));
+            stmt.setTimestamp(3, new Timestamp(to.getTime()));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(mapTransaction(rs));
+                }
+            }
+        }
+    }
+
+    // The customer's account numbers and then the UNION ALL of findRecentTransactions, on one connection
+    @Override
+    public List<Transaction> findRecentTransactionsForCustomer(int customerId, int limit) throws SQLException {
+        List<String> accountNumbers = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT accountNumber FROM account WHERE customerId = ?")) {
+                stmt.setInt(1, customerId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) accountNumbers.add(rs.getString(1));
+                }
+            }
+            return findRecentTransactions(conn, accountNumbers, limit);
+        }
+    }
+
     @Override
     public List<Transaction> getRecentCustomerTransactions(String accountNumber, String accountType) {
         List<Transaction> transactions = new ArrayList<>();
@@ -71,21 +207,17 @@ public class JDBCTransactionDAO implements com.example.bankaccount.TransactionDA
         return transactions;
     }
 
-    private Transaction mapTransaction(ResultSet rs) throws SQLException {
-        String accountNumber = rs.getString("accountNumber");
-
-        Transaction transaction = new Transaction(
-                accountNumber,                       // accountNumber as String
+    private static Transaction mapTransaction(ResultSet rs) throws SQLException {
+        // Full timestamp, not just the day: keyset paging compares on it
+        return new Transaction(
+                rs.getLong("transactionId"),
+                rs.getString("accountNumber"),
                 rs.getString("transactionType"),
                 rs.getDouble("amount"),
                 rs.getDouble("balance"),
+                rs.getTimestamp("transactionDate"),
                 rs.getString("description")
         );
-
-        transaction.setTransactionId(rs.getInt("transactionId"));
-        transaction.setTransactionDate(rs.getDate("transactionDate"));
-
-        return transaction;
     }
 
 
@@ -93,7 +225,8 @@ public class JDBCTransactionDAO implements com.example.bankaccount.TransactionDA
 
     private List<Transaction> fetchTransactions(String accountNumber, String sql) throws SQLException {
         List<Transaction> transaction = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, accountNumber);
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
@@ -105,7 +238,8 @@ public class JDBCTransactionDAO implements com.example.bankaccount.TransactionDA
 
     private List<Transaction> fetchTransactions(String accountNumber, String customerId, String sql) throws SQLException {
         List<Transaction> transaction = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, accountNumber);
             stmt.setString(2, customerId);
 
@@ -119,12 +253,6 @@ public class JDBCTransactionDAO implements com.example.bankaccount.TransactionDA
 
     @Override
     public void close() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                throw new RuntimeException("Error closing JDBCTransactionDAO connection", e);
-            }
-        }
+        // Nothing to release: connections go back to the pool after each call
     }
 }
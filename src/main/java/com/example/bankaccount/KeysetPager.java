@@ -0,0 +1,179 @@
+package com.example.bankaccount;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// Backs a TableView with one page of rows at a time. Pages are fetched in the background by keyset:
+// each page starts after the last row of the one before. Only the current page and a prefetched next
+// page are held in memory; going back re-fetches from the remembered page starts. The page state
+// only moves once the new page has loaded, so a failed load leaves the table where it was.
+// All public methods must be called on the FX thread.
+public class KeysetPager<T> {
+
+    // Fetches up to limit rows after the given row (null for the first page) in the current order/filter
+    public interface PageQuery<T> {
+        List<T> fetch(T after, int limit);
+    }
+
+    private static final ExecutorService LOADER = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "table-pager");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final int pageSize;
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final Runnable onPageChanged;
+    private final Consumer<Throwable> onLoadFailed;
+
+    private PageQuery<T> query;
+    // Row each earlier page started after; null entries stand for the first page
+    private final List<T> previousStarts = new ArrayList<>();
+    private T currentStart;
+    private boolean hasNext;
+    private boolean loading;
+
+    private Task<List<T>> load;
+    private Task<List<T>> prefetch;
+
+    // onLoadFailed is told, on the FX thread, about a page that could not be loaded
+    public KeysetPager(int pageSize, Runnable onPageChanged, Consumer<Throwable> onLoadFailed) {
+        if (pageSize < 1) throw new IllegalArgumentException("Page size must be positive");
+        this.pageSize = pageSize;
+        this.onPageChanged = onPageChanged;
+        this.onLoadFailed = onLoadFailed;
+    }
+
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    // New sort order or filter: start again from the first page
+    public void reset(PageQuery<T> newQuery) {
+        load(newQuery, null, () -> {
+            query = newQuery;
+            previousStarts.clear();
+            currentStart = null;
+        });
+    }
+
+    // Same order and filter, same page; picks up inserted or changed rows
+    public void reload() {
+        if (query != null) load(query, currentStart, () -> { });
+    }
+
+    public void next() {
+        if (!hasNext || loading) return;
+
+        T start = items.get(items.size() - 1);
+        Runnable moveForward = () -> {
+            previousStarts.add(currentStart);
+            currentStart = start;
+        };
+
+        Task<List<T>> ready = prefetch;
+        prefetch = null;
+        if (ready != null && ready.getState() == Worker.State.SUCCEEDED) {
+            moveForward.run();
+            show(ready.getValue());
+        } else if (ready != null && !ready.isDone()) {
+            // Still on its way: wait for it rather than asking again
+            track(ready, moveForward);
+        } else {
+            load(query, start, moveForward);
+        }
+    }
+
+    public void previous() {
+        if (previousStarts.isEmpty() || loading) return;
+        T start = previousStarts.get(previousStarts.size() - 1);
+        load(query, start, () -> {
+            previousStarts.remove(previousStarts.size() - 1);
+            currentStart = start;
+        });
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    public boolean hasPrevious() {
+        return !previousStarts.isEmpty();
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    // 1-based number of the page on screen
+    public int getPageNumber() {
+        return previousStarts.size() + 1;
+    }
+
+    public void cancel() {
+        if (load != null) load.cancel(true);
+        if (prefetch != null) prefetch.cancel(true);
+        load = null;
+        prefetch = null;
+        loading = false;
+    }
+
+    // Loads the page after start; onLoaded moves the page state once the rows are in
+    private void load(PageQuery<T> pageQuery, T start, Runnable onLoaded) {
+        cancel();
+        Task<List<T>> task = fetch(pageQuery, start);
+        track(task, onLoaded);
+        LOADER.execute(task);
+    }
+
+    // Makes task the page load whose result goes on screen; results of replaced loads are ignored
+    private void track(Task<List<T>> task, Runnable onLoaded) {
+        load = task;
+        loading = true;
+        onPageChanged.run();
+
+        task.setOnSucceeded(e -> {
+            if (task != load) return;
+            load = null;
+            loading = false;
+            onLoaded.run();
+            show(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            if (task != load) return;
+            load = null;
+            loading = false;
+            onPageChanged.run();
+            onLoadFailed.accept(task.getException());
+        });
+    }
+
+    // One row more than a page is fetched, so we know whether another page follows
+    private void show(List<T> rows) {
+        hasNext = rows.size() > pageSize;
+        items.setAll(hasNext ? rows.subList(0, pageSize) : rows);
+        onPageChanged.run();
+
+        if (hasNext) {
+            prefetch = fetch(query, items.get(items.size() - 1));
+            LOADER.execute(prefetch);
+        }
+    }
+
+    private Task<List<T>> fetch(PageQuery<T> pageQuery, T after) {
+        return new Task<>() {
+            @Override
+            protected List<T> call() {
+                return pageQuery.fetch(after, pageSize + 1);
+            }
+        };
+    }
+}
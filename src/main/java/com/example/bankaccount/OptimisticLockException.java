@@ -0,0 +1,24 @@
+package com.example.bankaccount;
+
+// Thrown when an account row changed between being read and being written back
+public class OptimisticLockException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String accountNumber;
+    private final long expectedVersion;
+
+    public OptimisticLockException(String accountNumber, long expectedVersion) {
+        super("Account " + accountNumber + " was modified concurrently (expected version " + expectedVersion + ")");
+        this.accountNumber = accountNumber;
+        this.expectedVersion = expectedVersion;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+}
@@ -8,7 +8,7 @@ import java.sql.SQLException;
 
 
 public class SavingsAccount extends Account implements InterestBearing {
-    private static final double INTEREST_RATE = 0.0005; // 0.05%
+    static final double INTEREST_RATE = 0.0005; // 0.05%
     private Date lastInterestDate;
     private JDBCTransactionDAO transactionDAO;
 
@@ -30,6 +30,15 @@ public class SavingsAccount extends Account implements InterestBearing {
 
     @Override
     public boolean applyInterestIfDue() {
+        Transaction transaction = accrueInterestIfDue();
+        if (transaction == null) return false;
+
+        saveInterestTransaction(transaction, transactionDAO);
+        return true;
+    }
+
+    @Override
+    public Transaction accrueInterestIfDue(LocalDate asOf) {
         if (lastInterestDate == null) {
             lastInterestDate = new Date(); // initialize to account creation date
         }
@@ -37,25 +46,20 @@ public class SavingsAccount extends Account implements InterestBearing {
         LocalDate lastAppliedDate = lastInterestDate.toInstant()
                 .atZone(ZoneId.systemDefault())
                 .toLocalDate();
-        LocalDate today = LocalDate.now();
-
-        long monthsElapsed = ChronoUnit.MONTHS.between(lastAppliedDate, today);
-        if (monthsElapsed < 1) return false;
+        long monthsElapsed = ChronoUnit.MONTHS.between(lastAppliedDate, asOf);
+        if (monthsElapsed < 1) return null;
 
         double interestAmount = getBalance() * getInterestRate() * monthsElapsed;
 
         setBalance(getBalance() + interestAmount);
-        addInterestTransaction(interestAmount, "Monthly Interest", transactionDAO);
+        Transaction transaction = new Transaction(getAccountNumber(), "INTEREST", interestAmount, getBalance(), "Monthly Interest");
+        getTransactionHistory().add(transaction);
 
-        lastInterestDate = java.sql.Date.valueOf(today);
-        return true;
+        lastInterestDate = java.sql.Date.valueOf(asOf);
+        return transaction;
     }
 
-    protected void addInterestTransaction(double interestAmount, String description, JDBCTransactionDAO transactionDAO) {
-        Transaction transaction = new Transaction(getAccountNumber(), "INTEREST", interestAmount, getBalance(), description);
-
-        getTransactionHistory().add(transaction);
-
+    protected void saveInterestTransaction(Transaction transaction, JDBCTransactionDAO transactionDAO) {
         try {
             transactionDAO.saveTransaction(transaction);
         } catch (SQLException e) {
@@ -0,0 +1,47 @@
+package com.example.bankaccount;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Helpers for "WHERE x IN (?, ?, ...)" lookups. Lists are padded up to a power of two so that
+// only a handful of distinct SQL strings reach the statement cache.
+public class SqlInList {
+
+    public static final int MAX_CHUNK_SIZE = 512;
+    private static final int MIN_CHUNK_SIZE = 8;
+
+    private SqlInList() {
+    }
+
+    public static <T> List<List<T>> chunks(Collection<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> current = new ArrayList<>(Math.min(values.size(), MAX_CHUNK_SIZE));
+        for (T value : values) {
+            current.add(value);
+            if (current.size() == MAX_CHUNK_SIZE) {
+                chunks.add(current);
+                current = new ArrayList<>(MAX_CHUNK_SIZE);
+            }
+        }
+        if (!current.isEmpty()) chunks.add(current);
+        return chunks;
+    }
+
+    // Number of placeholders to use for a chunk of the given size
+    public static int paddedSize(int size) {
+        int padded = MIN_CHUNK_SIZE;
+        while (padded < size) padded <<= 1;
+        return padded;
+    }
+
+    // "?, ?, ?" with the given number of placeholders
+    public static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+}
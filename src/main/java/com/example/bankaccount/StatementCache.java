@@ -0,0 +1,153 @@
+package com.example.bankaccount;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Prepared statements of one physical connection, keyed by SQL text and evicted least-recently-used first.
+// A statement is removed while a borrower holds it, so two open users of the same SQL never share one.
+class StatementCache {
+
+    private final int maxSize;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Map<String, PreparedStatement> idle = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    // Called for prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) on a pooled connection
+    PreparedStatement prepare(Connection raw, Connection owner, String sql, Integer autoGeneratedKeys) throws SQLException {
+        if (maxSize <= 0) {
+            return autoGeneratedKeys == null ? raw.prepareStatement(sql) : raw.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        String key = autoGeneratedKeys == null ? sql : autoGeneratedKeys + "|" + sql;
+        PreparedStatement statement = take(key);
+        if (statement != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            statement = autoGeneratedKeys == null ? raw.prepareStatement(sql) : raw.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new CachedStatement(key, statement, owner));
+    }
+
+    synchronized void closeAll() {
+        for (PreparedStatement statement : idle.values()) {
+            closeQuietly(statement);
+        }
+        idle.clear();
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    long getEvictions() {
+        return evictions.get();
+    }
+
+    private synchronized PreparedStatement take(String key) {
+        return idle.remove(key);
+    }
+
+    private synchronized void giveBack(String key, PreparedStatement statement) {
+        if (idle.putIfAbsent(key, statement) != null) {
+            // Another copy of this SQL came back first
+            closeQuietly(statement);
+            return;
+        }
+
+        Iterator<PreparedStatement> eldest = idle.values().iterator();
+        while (idle.size() > maxSize && eldest.hasNext()) {
+            closeQuietly(eldest.next());
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private class CachedStatement implements InvocationHandler {
+        private final String key;
+        private final PreparedStatement statement;
+        private final Connection owner;
+        private boolean closed;
+
+        CachedStatement(String key, PreparedStatement statement, Connection owner) {
+            this.key = key;
+            this.statement = statement;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        recycle();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement + "]";
+                default:
+                    if (closed) throw new SQLException("Statement is closed");
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+
+        private void recycle() {
+            try {
+                if (statement.isClosed()) return;
+                ResultSet open = statement.getResultSet();
+                if (open != null) open.close();
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.setFetchSize(0);
+                statement.setMaxRows(0);
+                statement.clearWarnings();
+                giveBack(key, statement);
+            } catch (SQLException e) {
+                closeQuietly(statement);
+            }
+        }
+    }
+}
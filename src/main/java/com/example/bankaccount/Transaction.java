@@ -2,9 +2,7 @@ package com.example.bankaccount;
 import java.util.Date;
 
 public class Transaction {
-    private static int nextTransactionId = 1000;
-
-    private int transactionId;
+    private long transactionId;
     private String accountNumber;
     private String transactionType;
     private double amount;
@@ -12,15 +10,23 @@ public class Transaction {
     private Date transactionDate;
     private String description;
 
+    // A new transaction: takes the next id and the current time
     public Transaction(String accountNumber, String transactionType, double amount,
                        double balance, String description) {
+        this(TransactionIdGenerator.shared().nextId(), accountNumber, transactionType, amount, balance,
+                new Date(), description);
+    }
+
+    // A transaction read back from the database, keeping its stored id and date
+    public Transaction(long transactionId, String accountNumber, String transactionType, double amount,
+                       double balance, Date transactionDate, String description) {
+        this.transactionId = transactionId;
         this.accountNumber = accountNumber;
         this.transactionType = transactionType;
         this.amount = amount;
         this.balance = balance;
+        this.transactionDate = transactionDate;
         this.description = description;
-        this.transactionId = nextTransactionId++;
-        this.transactionDate = new Date();
     }
 
     public String getAccountNumber() {
@@ -47,7 +53,7 @@ public class Transaction {
         return description;
     }
 
-    public int getTransactionId() {
+    public long getTransactionId() {
         return transactionId;
     }
 
@@ -75,7 +81,7 @@ public class Transaction {
         this.description = description;
     }
 
-    public void setTransactionId(int transactionId) {
+    public void setTransactionId(long transactionId) {
         this.transactionId = transactionId;
     }
 }
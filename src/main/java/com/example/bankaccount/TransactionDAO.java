@@ -3,10 +3,19 @@ package com.example.bankaccount;
 import java.sql.SQLException;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface TransactionDAO {
     void saveTransaction(Transaction transaction) throws SQLException;
+    CompletableFuture<Transaction> saveTransactionAsync(Transaction transaction);
     List<Transaction> findTransactionsByAccount(String accountNumber) throws SQLException;
+    // Keyset pages, newest first: pass the last transaction of the previous page as before (null for the first)
+    List<Transaction> findTransactions(String accountNumber, Transaction before, int limit) throws SQLException;
+    // Streams the account's transactions in [from, to), newest first, without holding them all in memory
+    void forEachTransactionBetween(String accountNumber, Date from, Date to, Consumer<Transaction> action) throws SQLException;
+    // The newest limit transactions across all of the customer's accounts, newest first
+    List<Transaction> findRecentTransactionsForCustomer(int customerId, int limit) throws SQLException;
     public List<Transaction> getRecentCustomerTransactions(String accountNumber, String accountType);
 
     void close();
@@ -0,0 +1,175 @@
+package com.example.bankaccount;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Group commit for standalone transaction inserts. Callers enqueue records; one writer thread
+// drains up to maxBatch of them (or whatever arrived within maxDelayMicros of the first) and
+// writes them with one batched insert and one commit. A caller's future completes once its
+// record is committed. If the batch fails, its records are retried one at a time, so only the
+// futures of records that fail on their own complete with the SQLException.
+public class TransactionJournal {
+
+    private record Entry(Transaction transaction, CompletableFuture<Transaction> done) {
+    }
+
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final Thread writer;
+    // Held by append while it checks running and enqueues, and by close while it clears running,
+    // so nothing can be queued after close has begun
+    private final Object appendLock = new Object();
+    private volatile boolean running = true;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder records = new LongAdder();
+
+    public TransactionJournal(int maxBatch, long maxDelayMicros) {
+        if (maxBatch < 1 || maxDelayMicros < 0) {
+            throw new IllegalArgumentException("Batch size must be positive and delay non-negative");
+        }
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+
+        writer = new Thread(this::writeLoop, "transaction-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public CompletableFuture<Transaction> append(Transaction transaction) {
+        CompletableFuture<Transaction> done = new CompletableFuture<>();
+        synchronized (appendLock) {
+            if (running) {
+                queue.add(new Entry(transaction, done));
+                return done;
+            }
+        }
+        done.completeExceptionally(new IllegalStateException("Transaction journal is closed"));
+        return done;
+    }
+
+    // Stops taking new records and waits for the writer to commit what is already queued
+    public void close() {
+        synchronized (appendLock) {
+            running = false;
+        }
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The writer normally drains the queue on its way out; if it died, fail what it left behind
+        if (!writer.isAlive()) failQueued();
+    }
+
+    public long getBatchesWritten() {
+        return batches.sum();
+    }
+
+    public long getRecordsWritten() {
+        return records.sum();
+    }
+
+    public double getAverageBatchSize() {
+        long b = batches.sum();
+        return b == 0 ? 0.0 : (double) records.sum() / b;
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                // Keep filling until the batch is full or the first record has waited long enough
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    if (batch.size() >= maxBatch) break;
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                write(batch);
+            } catch (InterruptedException e) {
+                synchronized (appendLock) {
+                    running = false;
+                }
+                if (!batch.isEmpty()) write(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+
+        failQueued();
+    }
+
+    // Refuses whatever is still queued rather than leaving its callers waiting
+    private void failQueued() {
+        Entry late;
+        while ((late = queue.poll()) != null) {
+            late.done().completeExceptionally(new IllegalStateException("Transaction journal is closed"));
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        List<Transaction> transactions = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            transactions.add(entry.transaction());
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                JDBCTransactionDAO.saveTransactions(conn, transactions);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("[TransactionJournal] Failed to write " + batch.size() + " transactions, retrying one by one: "
+                    + e.getMessage());
+            for (Entry entry : batch) {
+                writeOne(entry);
+            }
+            return;
+        }
+
+        batches.increment();
+        records.add(batch.size());
+        for (Entry entry : batch) {
+            entry.done().complete(entry.transaction());
+        }
+    }
+
+    // Fallback after a failed batch: one insert and commit per record, so a bad record fails alone
+    private void writeOne(Entry entry) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            JDBCTransactionDAO.saveTransactions(conn, List.of(entry.transaction()));
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("[TransactionJournal] Failed to write transaction " + entry.transaction().getTransactionId()
+                    + ": " + e.getMessage());
+            entry.done().completeExceptionally(e);
+            return;
+        }
+
+        batches.increment();
+        records.increment();
+        entry.done().complete(entry.transaction());
+    }
+}
@@ -0,0 +1,29 @@
+-- Schema changes for bankingdb, applied in order on top of the original tables.
+
+-- Interest runs only read accounts that are due (JDBCAccountDAO.forEachInterestDueAccountInRange)
+CREATE INDEX idx_account_type_last_interest ON account (accountType, lastInterestDate);
+
+-- Optimistic locking: every write bumps version, JDBCAccountDAO.updateAccount only writes the version it read
+ALTER TABLE account ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Transaction ids are 64-bit and assigned by the application (TransactionIdGenerator); existing ids stay valid
+ALTER TABLE transaction MODIFY transactionId BIGINT NOT NULL;
+
+-- Account numbers are reserved in blocks from here by AccountNumberAllocator. Serials are dense and
+-- ascending from 1, so new numbers cluster at the bottom of the 7xxxxxxxxxxx space; InterestEngine
+-- partitions on split points of the actual due accounts rather than on that numeric range
+CREATE TABLE account_number_sequence (
+    name      VARCHAR(32) PRIMARY KEY,
+    nextValue BIGINT NOT NULL
+);
+INSERT INTO account_number_sequence (name, nextValue) VALUES ('account', 1);
+
+-- Keyset paging of an account's history (JDBCTransactionDAO.findTransactions)
+CREATE INDEX idx_transaction_account_date ON transaction (accountNumber, transactionDate, transactionId);
+
+-- Keyset paging of the teller customer tables (JDBCCustomerDAO.findIndividualsPage / findCompaniesPage)
+CREATE INDEX idx_individual_first_name ON individual (firstName, customerId);
+CREATE INDEX idx_individual_surname ON individual (surname, customerId);
+CREATE INDEX idx_individual_id_number ON individual (idNumber, customerId);
+CREATE INDEX idx_company_name ON company (companyName, customerId);
+CREATE INDEX idx_company_registration ON company (registrationNumber, customerId);
@@ -0,0 +1,143 @@
+package com.example.bankaccount;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Posts interest to pairs of identical accounts, one through accrueInterestIfDue + updateAccount and
+// one through the set-based postInterestInDatabase, and checks both end up with the same rows.
+// Needs the bankingdb MySQL database; skipped when it cannot be reached.
+class InterestPostingParityTest {
+
+    // Far enough in the past that no real account is due as of this date
+    private static final LocalDate AS_OF = LocalDate.of(1991, 3, 15);
+    private static final double CENT = 0.005;
+
+    private final JDBCCustomerDAO customerDAO = new JDBCCustomerDAO();
+    private final JDBCAccountDAO accountDAO = new JDBCAccountDAO(customerDAO);
+    private final JDBCTransactionDAO transactionDAO = new JDBCTransactionDAO();
+
+    private Individual customer;
+    private final List<String[]> pairs = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(databaseAvailable(), "bankingdb is not reachable");
+
+        customer = new Individual("", "", "1 Test Street", "parity@example.com", "Parity", "Test",
+                "9001015000080", java.sql.Date.valueOf("1990-01-01"), "Other", "0710000000",
+                "Kin", "Other", "Other", "0710000001",
+                "Salary", "Test", "1 Test Street", 1000);
+        customer.setUsername("parity" + System.nanoTime());
+        customer.setPassword("parity");
+        customerDAO.saveCustomer(customer);
+
+        // Whole months elapsed: 1, 3, 20 and 0 (not yet due)
+        addPair("savings", 1234.56, LocalDate.of(1991, 2, 15));
+        addPair("savings", 98765.43, LocalDate.of(1990, 12, 1));
+        addPair("investment", 500.00, LocalDate.of(1989, 7, 10));
+        addPair("investment", 2500.00, LocalDate.of(1991, 3, 1));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (customer == null || customer.getCustomerId() == 0) return;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (String[] pair : pairs) {
+                for (String accountNumber : pair) {
+                    execute(conn, "DELETE FROM transaction WHERE accountNumber = ?", accountNumber);
+                    execute(conn, "DELETE FROM account WHERE accountNumber = ?", accountNumber);
+                }
+            }
+            execute(conn, "DELETE FROM individual WHERE customerId = ?", customer.getCustomerId());
+            execute(conn, "DELETE FROM customer WHERE customerId = ?", customer.getCustomerId());
+            execute(conn, "DELETE FROM user WHERE userId = ?", customer.getUserId());
+        }
+    }
+
+    @Test
+    void setBasedPostingMatchesPerAccountPosting() throws SQLException {
+        int expectedPosted = 0;
+        for (String[] pair : pairs) {
+            Account account = accountDAO.findAccountByNumber(pair[0]);
+            Transaction interest = ((InterestBearing) account).accrueInterestIfDue(AS_OF);
+            if (interest == null) continue;
+            accountDAO.updateAccount(account);
+            transactionDAO.saveTransaction(interest);
+            expectedPosted++;
+        }
+
+        // The per-account side is now up to date, so only the second account of each pair is due
+        assertEquals(expectedPosted, accountDAO.postInterestInDatabase(AS_OF));
+
+        for (String[] pair : pairs) {
+            Account byObject = accountDAO.findAccountByNumber(pair[0]);
+            Account bySql = accountDAO.findAccountByNumber(pair[1]);
+            assertEquals(byObject.getBalance(), bySql.getBalance(), CENT, "balance of " + pair[1]);
+            assertEquals(((InterestBearing) byObject).getLastInterestDate(),
+                    ((InterestBearing) bySql).getLastInterestDate(), "lastInterestDate of " + pair[1]);
+
+            List<Transaction> objectHistory = interestTransactions(pair[0]);
+            List<Transaction> sqlHistory = interestTransactions(pair[1]);
+            assertEquals(objectHistory.size(), sqlHistory.size(), "interest transactions of " + pair[1]);
+            for (int i = 0; i < objectHistory.size(); i++) {
+                Transaction expected = objectHistory.get(i);
+                Transaction actual = sqlHistory.get(i);
+                assertEquals(expected.getAmount(), actual.getAmount(), CENT);
+                assertEquals(expected.getBalance(), actual.getBalance(), CENT);
+                assertEquals(expected.getDescription(), actual.getDescription());
+                assertNotNull(actual.getTransactionDate());
+            }
+        }
+    }
+
+    // Saves the same account twice: [0] is posted per object, [1] by SQL
+    private void addPair(String type, double balance, LocalDate lastInterestDate) {
+        String[] pair = new String[2];
+        for (int i = 0; i < 2; i++) {
+            Account account = type.equals("savings")
+                    ? new SavingsAccount("Parity", customer, transactionDAO)
+                    : new InvestmentAccount("Parity", customer, transactionDAO);
+            account.setBalance(balance);
+            ((InterestBearing) account).setLastInterestDate(java.sql.Date.valueOf(lastInterestDate));
+            accountDAO.saveAccount(account);
+            pair[i] = account.getAccountNumber();
+        }
+        pairs.add(pair);
+    }
+
+    private List<Transaction> interestTransactions(String accountNumber) throws SQLException {
+        List<Transaction> interest = new ArrayList<>();
+        for (Transaction t : transactionDAO.findTransactionsByAccount(accountNumber)) {
+            if ("INTEREST".equals(t.getTransactionType())) interest.add(t);
+        }
+        return interest;
+    }
+
+    private static void execute(Connection conn, String sql, Object param) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setObject(1, param);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static boolean databaseAvailable() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return conn.isValid(2);
+        } catch (SQLException | RuntimeException | LinkageError e) {
+            // RuntimeException/LinkageError: no MySQL driver on the test classpath
+            return false;
+        }
+    }
+}
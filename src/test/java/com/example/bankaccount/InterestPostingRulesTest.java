@@ -0,0 +1,100 @@
+package com.example.bankaccount;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// No database needed: checks the rules postInterestInDatabase encodes in SQL (the due cutoff, the rate
+// CASE and TIMESTAMPDIFF(MONTH, ...)) against accrueInterestIfDue on the accounts JDBCAccountDAO builds
+// from the same accountType values. InterestPostingParityTest runs both paths against MySQL.
+class InterestPostingRulesTest {
+
+    private static final double BALANCE = 1234.56;
+
+    private final JDBCAccountDAO accountDAO = new JDBCAccountDAO(null);
+    private final Individual customer = new Individual("", "", "1 Test Street", "rules@example.com", "Rules", "Test",
+            "9001015000080", java.sql.Date.valueOf("1990-01-01"), "Other", "0710000000",
+            "Kin", "Other", "Other", "0710000001",
+            "Salary", "Test", "1 Test Street", 1000);
+
+    @Test
+    void sqlRulesMatchPerAccountAccrual() throws SQLException {
+        List<Object> rateParams = boundInterestRate();
+
+        // Month ends, leap days and short months on both sides
+        for (LocalDate asOf = LocalDate.of(2024, 1, 1); asOf.isBefore(LocalDate.of(2024, 7, 1)); asOf = asOf.plusDays(1)) {
+            for (LocalDate last = LocalDate.of(2023, 11, 1); !last.isAfter(asOf); last = last.plusDays(1)) {
+                for (String type : JDBCAccountDAO.INTEREST_BEARING_TYPES) {
+                    assertSameAsSql(type, last, asOf, rateParams);
+                }
+            }
+        }
+    }
+
+    private void assertSameAsSql(String type, LocalDate last, LocalDate asOf, List<Object> rateParams) {
+        Account account = accountDAO.toAccount(new JDBCAccountDAO.AccountRow("700000000018", "Main", BALANCE, type,
+                1, toDate(last), 0), customer, null);
+        assertNotNull(account, "no account built for type " + type);
+
+        Transaction interest = ((InterestBearing) account).accrueInterestIfDue(asOf);
+        String context = type + " from " + last + " to " + asOf;
+
+        // WHERE lastInterestDate <= cutoff
+        if (last.isAfter(JDBCAccountDAO.interestDueCutoff(asOf))) {
+            assertNull(interest, context + " should not be due");
+            return;
+        }
+
+        // balance * CASE ... END * TIMESTAMPDIFF(MONTH, lastInterestDate, asOf)
+        double expected = BALANCE * caseRate(type, rateParams) * timestampDiffMonths(last, asOf);
+        assertNotNull(interest, context + " should be due");
+        assertEquals(expected, interest.getAmount(), 1e-9, context);
+        assertEquals(BALANCE + expected, account.getBalance(), 1e-9, context);
+        assertEquals(java.sql.Date.valueOf(asOf), ((InterestBearing) account).getLastInterestDate(), context);
+    }
+
+    // CASE WHEN accountType IN (<strings>) THEN <first double> ELSE <second double> END
+    private static double caseRate(String type, List<Object> rateParams) {
+        List<Object> savingsTypes = rateParams.subList(0, rateParams.size() - 2);
+        return (double) rateParams.get(savingsTypes.contains(type) ? rateParams.size() - 2 : rateParams.size() - 1);
+    }
+
+    // MySQL's TIMESTAMPDIFF(MONTH, from, to) on DATE values: calendar months, less one if the day has not been reached
+    private static long timestampDiffMonths(LocalDate from, LocalDate to) {
+        long months = (to.getYear() - from.getYear()) * 12L + to.getMonthValue() - from.getMonthValue();
+        return to.getDayOfMonth() < from.getDayOfMonth() ? months - 1 : months;
+    }
+
+    // The parameters bindInterestRate sets, in index order
+    private static List<Object> boundInterestRate() throws SQLException {
+        TreeMap<Integer, Object> params = new TreeMap<>();
+        PreparedStatement stmt = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length == 2) {
+                        params.put((Integer) args[0], args[1]);
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        int next = JDBCAccountDAO.bindInterestRate(stmt, 1);
+        assertEquals(params.size() + 1, next);
+        return new ArrayList<>(params.values());
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}